@@ -1,12 +1,22 @@
 package com.jefferson.geradorhorarios;
 
+import com.jefferson.geradorhorarios.batch.GeracaoBatchApplication;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Arrays;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class GeradorHorariosApplication {
 
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains(GeracaoBatchApplication.ARGUMENTO_BATCH)) {
+            System.exit(GeracaoBatchApplication.executar(args));
+        }
         SpringApplication.run(GeradorHorariosApplication.class, args);
     }
 
@@ -0,0 +1,49 @@
+package com.jefferson.geradorhorarios.batch;
+
+import com.jefferson.geradorhorarios.gerador.GeradorHorarios;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+/**
+ * Modo batch da geração de horários: lê um arquivo de problema (ver
+ * {@link com.jefferson.geradorhorarios.gerador.ProblemaHorarioCsv}), gera o horário, grava o resultado e encerra.
+ * <p>
+ * O contexto não passa pelo {@code SpringApplication}: não há auto-configuração, scan de componentes nem
+ * processamento de anotações, e os beans são registrados funcionalmente (a mesma forma que o Spring AOT gera).
+ * Por isso não sobem Tomcat, Hibernate, DataSource, devtools nem o {@code DataLoader}, e o conjunto de classes
+ * carregadas é pequeno e estável, bom para arquivos CDS. Uso:
+ * <pre>
+ * java -jar gerador-horarios.jar --batch --entrada=problema.csv --saida=horario.csv
+ * </pre>
+ * Para iniciar ainda mais rápido, gere um arquivo CDS uma vez com {@code -XX:ArchiveClassesAtExit=batch.jsa}
+ * e reutilize-o nas execuções seguintes com {@code -XX:SharedArchiveFile=batch.jsa}.
+ */
+public final class GeracaoBatchApplication {
+
+    public static final String ARGUMENTO_BATCH = "--batch";
+
+    private GeracaoBatchApplication() {
+    }
+
+    /**
+     * Executa a geração em batch.
+     *
+     * @param args Os argumentos da linha de comando.
+     * @return O código de saída do processo (ver {@link GeracaoBatchRunner}).
+     */
+    public static int executar(String... args) {
+        // Sem o SpringApplication, o logging não é configurado pelo Boot; usa uma configuração enxuta própria
+        if (System.getProperty("logback.configurationFile") == null) {
+            System.setProperty("logback.configurationFile", "logback-batch.xml");
+        }
+        try (GenericApplicationContext contexto = new GenericApplicationContext()) {
+            contexto.getEnvironment().getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+            contexto.registerBean(GeradorHorarios.class, GeradorHorarios::new);
+            contexto.registerBean(GeracaoBatchRunner.class,
+                    () -> new GeracaoBatchRunner(contexto.getBean(GeradorHorarios.class)));
+            contexto.refresh();
+            return contexto.getBean(GeracaoBatchRunner.class).executar(new DefaultApplicationArguments(args));
+        }
+    }
+}
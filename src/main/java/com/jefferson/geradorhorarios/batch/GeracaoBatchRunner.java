@@ -0,0 +1,76 @@
+package com.jefferson.geradorhorarios.batch;
+
+import com.jefferson.geradorhorarios.gerador.GeradorHorarios;
+import com.jefferson.geradorhorarios.gerador.ProblemaHorario;
+import com.jefferson.geradorhorarios.gerador.ProblemaHorarioCsv;
+import com.jefferson.geradorhorarios.gerador.SolucaoHorario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Executa uma geração a partir dos argumentos {@code --entrada} e {@code --saida}.
+ * Códigos de saída: 0 quando todas as aulas foram alocadas, 2 quando houve pendências
+ * (o horário parcial é gravado mesmo assim) e 1 em caso de erro de argumentos ou de leitura.
+ */
+class GeracaoBatchRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GeracaoBatchRunner.class);
+
+    private final GeradorHorarios geradorHorarios;
+
+    GeracaoBatchRunner(GeradorHorarios geradorHorarios) {
+        this.geradorHorarios = geradorHorarios;
+    }
+
+    /**
+     * Lê o problema, gera o horário e grava o resultado.
+     *
+     * @param args Os argumentos da linha de comando.
+     * @return O código de saída do processo.
+     */
+    int executar(ApplicationArguments args) {
+        Path entrada = caminho(args, "entrada");
+        Path saida = caminho(args, "saida");
+        if (entrada == null || saida == null) {
+            log.error("Uso: --batch --entrada=<problema.csv> --saida=<horario.csv>");
+            return 1;
+        }
+
+        long inicio = System.nanoTime();
+        ProblemaHorario problema;
+        try (Reader leitor = Files.newBufferedReader(entrada, StandardCharsets.UTF_8)) {
+            problema = ProblemaHorarioCsv.ler(leitor);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Não foi possível ler o problema {}: {}", entrada, e.getMessage());
+            return 1;
+        }
+
+        SolucaoHorario solucao = geradorHorarios.gerar(problema);
+
+        try (Writer escritor = Files.newBufferedWriter(saida, StandardCharsets.UTF_8)) {
+            ProblemaHorarioCsv.escrever(solucao, escritor);
+        } catch (IOException e) {
+            log.error("Não foi possível gravar o horário em {}: {}", saida, e.getMessage());
+            return 1;
+        }
+
+        log.info("Horário gerado em {} ms: {} aulas geradas, {} no total, {} pendência(s).",
+                (System.nanoTime() - inicio) / 1_000_000, solucao.aulasGeradas(), solucao.alocacoes().size(),
+                solucao.pendencias().size());
+        return solucao.pendencias().isEmpty() ? 0 : 2;
+    }
+
+    private static Path caminho(ApplicationArguments args, String nome) {
+        List<String> valores = args.getOptionValues(nome);
+        return valores == null || valores.isEmpty() ? null : Path.of(valores.get(0));
+    }
+}
@@ -0,0 +1,26 @@
+package com.jefferson.geradorhorarios.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuração da grade horária da escola (horarios.grade.*).
+ * Os intervalos entre os períodos (recreio, almoço) são as lacunas entre um período e o seguinte.
+ */
+@Data
+@ConfigurationProperties(prefix = "horarios.grade")
+public class GradeHorariaProperties {
+
+    // Dias letivos da semana
+    private List<DayOfWeek> dias = new ArrayList<>(List.of(
+            DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY));
+
+    // Períodos de aula de cada dia, no formato "HH:mm-HH:mm", em ordem cronológica
+    private List<String> periodos = new ArrayList<>(List.of(
+            "08:00-09:00", "09:00-10:00", "10:00-11:00", "11:00-12:00",
+            "13:00-14:00", "14:00-15:00", "15:00-16:00", "16:00-17:00", "17:00-18:00"));
+}
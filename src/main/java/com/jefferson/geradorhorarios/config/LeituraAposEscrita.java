@@ -0,0 +1,143 @@
+package com.jefferson.geradorhorarios.config;
+
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Garante que quem escreveu leia a própria escrita quando as leituras vão para a réplica ("read-your-writes").
+ * Depois de uma escrita confirmada, só quem a fez lê do principal, por uma janela igual ao atraso máximo da réplica:
+ * a mesma thread (por exemplo, o restante da requisição) e, pelo cookie devolvido na resposta, as próximas
+ * requisições do mesmo cliente. Os demais clientes continuam na réplica enquanto o atraso medido for aceitável
+ * (ver {@link MonitorReplica}).
+ * <p>
+ * As grades com ETag são a exceção: durante a mesma janela depois de uma alteração na turma ou no professor,
+ * local ou vinda de outro nó pelo log, qualquer cliente lê aquela grade do principal (ver {@link #lendoGrade}).
+ * Assim ninguém recebe da réplica uma grade anterior à alteração logo depois que ela foi anunciada.
+ */
+public class LeituraAposEscrita extends OncePerRequestFilter {
+
+    static final String COOKIE = "horarios-ultima-escrita"; // Instante da última escrita do cliente (epoch em ms)
+    private static final String CHAVE_GERAL = "GERAL";
+    private static final int MAXIMO_DE_GRADES = 10_000; // Acima disso, as alterações fora da janela são descartadas
+
+    private final long janelaMs;
+    private final ThreadLocal<Long> ultimaEscritaNanos = new ThreadLocal<>();
+    private final ThreadLocal<HttpServletResponse> respostaAtual = new ThreadLocal<>();
+    private final Map<String, Long> alteracoesPorGrade = new ConcurrentHashMap<>(); // Instante (nanoTime) por grade
+    private final ThreadLocal<String> gradeLida = new ThreadLocal<>();
+
+    public LeituraAposEscrita(long janelaMs) {
+        this.janelaMs = janelaMs;
+    }
+
+    /**
+     * @return true se a thread atual escreveu (ou atende um cliente que escreveu) há menos que a janela.
+     */
+    public boolean lerDoPrincipal() {
+        if (dentroDaJanela(ultimaEscritaNanos.get())) {
+            return true;
+        }
+        String grade = gradeLida.get();
+        return grade != null
+                && (dentroDaJanela(alteracoesPorGrade.get(grade)) || dentroDaJanela(alteracoesPorGrade.get(CHAVE_GERAL)));
+    }
+
+    /**
+     * Executa a leitura de uma grade, que vai para o principal se a grade foi alterada há menos que a janela.
+     * A leitura deve abrir a própria transação (a conexão só é escolhida no primeiro comando).
+     *
+     * @param escopo  TURMA ou PROFESSOR.
+     * @param id      O 'ID' da turma ou do professor.
+     * @param leitura A leitura da grade.
+     * @return O resultado da leitura.
+     */
+    public <T> T lendoGrade(GradeAlteradaEvent.Escopo escopo, Long id, Supplier<T> leitura) {
+        gradeLida.set(chave(escopo, id));
+        try {
+            return leitura.get();
+        } finally {
+            gradeLida.remove();
+        }
+    }
+
+    /**
+     * Registra a alteração de uma grade, depois do commit das escritas locais ou ao ler o log de outro nó.
+     *
+     * @param evento O evento de alteração da grade.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarAlteracao(GradeAlteradaEvent evento) {
+        if (evento.escopo() == GradeAlteradaEvent.Escopo.QUALIFICACAO) {
+            return;
+        }
+        if (alteracoesPorGrade.size() >= MAXIMO_DE_GRADES) {
+            alteracoesPorGrade.values().removeIf(alteracao -> !dentroDaJanela(alteracao));
+        }
+        alteracoesPorGrade.put(chave(evento.escopo(), evento.id()), System.nanoTime());
+    }
+
+    /**
+     * Registra uma escrita confirmada pela thread atual e, dentro de uma requisição, marca o cliente com o cookie.
+     */
+    public void registrarEscrita() {
+        ultimaEscritaNanos.set(System.nanoTime());
+        HttpServletResponse resposta = respostaAtual.get();
+        if (resposta != null && !resposta.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (janelaMs + 999) / 1000));
+            resposta.addCookie(cookie);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long decorridoMs = decorridoDesdeAEscritaDoCliente(request);
+        if (decorridoMs >= 0 && decorridoMs < janelaMs) {
+            ultimaEscritaNanos.set(System.nanoTime() - decorridoMs * 1_000_000);
+        }
+        respostaAtual.set(response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            respostaAtual.remove();
+            ultimaEscritaNanos.remove();
+        }
+    }
+
+    private boolean dentroDaJanela(Long instanteNanos) {
+        return instanteNanos != null && System.nanoTime() - instanteNanos < janelaMs * 1_000_000;
+    }
+
+    private static String chave(GradeAlteradaEvent.Escopo escopo, Long id) {
+        return escopo == GradeAlteradaEvent.Escopo.GERAL ? CHAVE_GERAL : escopo.name() + ":" + id;
+    }
+
+    private static long decorridoDesdeAEscritaDoCliente(HttpServletRequest request) {
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        return System.currentTimeMillis() - Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return -1;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,59 @@
+package com.jefferson.geradorhorarios.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Decide se a réplica de leitura pode ser usada agora, a partir do atraso medido.
+ * A réplica é evitada quando o atraso passa do máximo ou quando a medição falha.
+ * Quem acabou de escrever lê do principal independentemente do atraso (ver {@link LeituraAposEscrita}).
+ */
+public class MonitorReplica {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplica.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String consultaAtraso;
+    private final long atrasoMaximoMs;
+
+    private volatile boolean atrasoAceitavel = true;
+
+    public MonitorReplica(DataSource replica, String consultaAtraso, long atrasoMaximoMs) {
+        this.jdbcTemplate = new JdbcTemplate(replica);
+        this.consultaAtraso = consultaAtraso;
+        this.atrasoMaximoMs = atrasoMaximoMs;
+    }
+
+    /**
+     * @return true se as leituras podem ir para a réplica.
+     */
+    public boolean replicaUtilizavel() {
+        return atrasoAceitavel;
+    }
+
+    /**
+     * Mede o atraso da réplica com a consulta configurada.
+     */
+    @Scheduled(fixedDelayString = "${horarios.datasource.replica.intervalo-verificacao-ms:5000}")
+    public void verificarAtraso() {
+        if (consultaAtraso == null || consultaAtraso.isBlank()) {
+            return;
+        }
+        boolean aceitavel;
+        try {
+            Number atraso = jdbcTemplate.queryForObject(consultaAtraso, Number.class);
+            aceitavel = atraso != null && atraso.longValue() <= atrasoMaximoMs;
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível medir o atraso da réplica: {}", e.getMessage());
+            aceitavel = false;
+        }
+        if (aceitavel != atrasoAceitavel) {
+            log.info(aceitavel ? "Leituras voltando para a réplica." : "Réplica atrasada ou indisponível; leituras no principal.");
+        }
+        atrasoAceitavel = aceitavel;
+    }
+}
@@ -0,0 +1,29 @@
+package com.jefferson.geradorhorarios.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuração da réplica de leitura (horarios.datasource.replica.*).
+ * Só tem efeito quando a URL é informada; sem ela, tudo vai para o DataSource principal (spring.datasource.*).
+ */
+@Data
+@ConfigurationProperties(prefix = "horarios.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+
+    // Consulta executada na réplica que retorna o atraso de replicação em milissegundos (vazia: atraso não verificado).
+    // No Postgres, por exemplo:
+    // select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+    //        else extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000 end
+    private String consultaAtraso;
+
+    // Atraso máximo tolerado; acima dele (ou se a consulta falhar), as leituras voltam para o principal
+    private long atrasoMaximoMs = 5000;
+
+    private long intervaloVerificacaoMs = 5000;
+}
@@ -0,0 +1,72 @@
+package com.jefferson.geradorhorarios.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Encaminha as conexões de transações somente leitura ({@code @Transactional(readOnly = true)}) para a réplica
+ * e todo o resto (escritas, e leituras dentro de transações de escrita, como a verificação de choques) para o principal.
+ * Deve ser usado dentro de um {@link LazyConnectionDataSourceProxy} (ver {@link #criar}), para que a conexão só seja
+ * obtida no primeiro comando, quando a transação já está marcada como somente leitura.
+ * Depois de uma escrita confirmada, as leituras de quem escreveu, e as das grades recém-alteradas, ficam no principal
+ * (ver {@link LeituraAposEscrita}).
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    enum Destino {
+        PRINCIPAL, REPLICA
+    }
+
+    private final MonitorReplica monitorReplica;
+    private final LeituraAposEscrita leituraAposEscrita;
+
+    private RoteamentoDataSource(MonitorReplica monitorReplica, LeituraAposEscrita leituraAposEscrita) {
+        this.monitorReplica = monitorReplica;
+        this.leituraAposEscrita = leituraAposEscrita;
+    }
+
+    /**
+     * Monta o DataSource roteado.
+     *
+     * @param principal      O DataSource de escrita.
+     * @param replica        O DataSource da réplica de leitura.
+     * @param monitorReplica     O monitor que decide se a réplica pode ser usada.
+     * @param leituraAposEscrita Quem decide se as leituras de quem acabou de escrever ficam no principal.
+     * @return O DataSource a ser exposto para o JPA e o JdbcTemplate.
+     */
+    public static DataSource criar(DataSource principal, DataSource replica, MonitorReplica monitorReplica,
+                                   LeituraAposEscrita leituraAposEscrita) {
+        RoteamentoDataSource roteamento = new RoteamentoDataSource(monitorReplica, leituraAposEscrita);
+        roteamento.setTargetDataSources(Map.of(Destino.PRINCIPAL, principal, Destino.REPLICA, replica));
+        roteamento.setDefaultTargetDataSource(principal);
+        roteamento.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Destino.PRINCIPAL;
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return monitorReplica.replicaUtilizavel() && !leituraAposEscrita.lerDoPrincipal()
+                    ? Destino.REPLICA : Destino.PRINCIPAL;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        leituraAposEscrita.registrarEscrita();
+                    }
+                }
+            });
+        }
+        return Destino.PRINCIPAL;
+    }
+}
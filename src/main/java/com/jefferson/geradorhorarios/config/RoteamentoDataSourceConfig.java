@@ -0,0 +1,63 @@
+package com.jefferson.geradorhorarios.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * Separa leituras e escritas quando uma réplica está configurada (horarios.datasource.replica.url).
+ * O DataSource principal continua vindo de spring.datasource.*; os dois pools não são candidatos a injeção por tipo,
+ * e o único DataSource visível para o JPA e o JdbcTemplate é o roteado.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "horarios.datasource.replica", name = "url")
+public class RoteamentoDataSourceConfig {
+
+    @Bean(defaultCandidate = false)
+    public HikariDataSource dataSourcePrincipal(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("principal");
+        return dataSource;
+    }
+
+    @Bean(defaultCandidate = false)
+    public HikariDataSource dataSourceReplica(ReplicaDataSourceProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .driverClassName(properties.getDriverClassName())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public MonitorReplica monitorReplica(@Qualifier("dataSourceReplica") DataSource replica,
+                                         ReplicaDataSourceProperties properties) {
+        return new MonitorReplica(replica, properties.getConsultaAtraso(), properties.getAtrasoMaximoMs());
+    }
+
+    @Bean
+    public LeituraAposEscrita leituraAposEscrita(ReplicaDataSourceProperties properties) {
+        return new LeituraAposEscrita(properties.getAtrasoMaximoMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrincipal") DataSource principal,
+                                 @Qualifier("dataSourceReplica") DataSource replica,
+                                 MonitorReplica monitorReplica,
+                                 LeituraAposEscrita leituraAposEscrita) {
+        return RoteamentoDataSource.criar(principal, replica, monitorReplica, leituraAposEscrita);
+    }
+}
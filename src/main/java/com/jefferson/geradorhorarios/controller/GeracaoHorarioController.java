@@ -0,0 +1,47 @@
+package com.jefferson.geradorhorarios.controller;
+
+import com.jefferson.geradorhorarios.dto.VersaoGerada;
+import com.jefferson.geradorhorarios.gerador.ProblemaHorarioCsv;
+import com.jefferson.geradorhorarios.service.GeracaoHorarioService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.StringWriter;
+
+/**
+ * Exportação do problema de horários para o modo batch e geração de grades candidatas como versões.
+ */
+@RestController
+@RequestMapping("/api/geracao")
+public class GeracaoHorarioController {
+
+    private final GeracaoHorarioService geracaoHorarioService;
+
+    public GeracaoHorarioController(GeracaoHorarioService geracaoHorarioService) {
+        this.geracaoHorarioService = geracaoHorarioService;
+    }
+
+    /**
+     * Exporta o estado atual como arquivo de problema, para ser processado com {@code --batch}.
+     */
+    @GetMapping(value = "/problema", produces = "text/csv")
+    public ResponseEntity<String> exportarProblema() {
+        StringWriter saida = new StringWriter();
+        ProblemaHorarioCsv.escrever(geracaoHorarioService.carregarProblema(), saida);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"problema-horario.csv\"")
+                .body(saida.toString());
+    }
+
+    /**
+     * Gera uma grade candidata e a grava como versão, sem alterar a grade atual.
+     */
+    @PostMapping("/versoes")
+    @ResponseStatus(HttpStatus.CREATED)
+    public VersaoGerada gerarVersao(@RequestParam(required = false) Long versaoPaiId,
+                                    @RequestParam(required = false) String descricao) {
+        return geracaoHorarioService.gerarVersao(versaoPaiId, descricao);
+    }
+}
@@ -0,0 +1,84 @@
+package com.jefferson.geradorhorarios.controller;
+
+import com.jefferson.geradorhorarios.config.LeituraAposEscrita;
+import com.jefferson.geradorhorarios.dto.GradeProfessorResponse;
+import com.jefferson.geradorhorarios.dto.GradeTurmaResponse;
+import com.jefferson.geradorhorarios.dto.SlotViavel;
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
+import com.jefferson.geradorhorarios.service.GradeHorarioService;
+import com.jefferson.geradorhorarios.service.OcupacaoGradeService;
+import com.jefferson.geradorhorarios.service.RevisaoGradeService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * API de leitura das grades de horário por turma e por professor.
+ * As respostas carregam um ETag forte derivado da revisão gravada da grade (a mesma em todos os nós);
+ * um GET com If-None-Match igual à revisão atual recebe 304 Not Modified depois de ler apenas a revisão
+ * e confirmar que a turma ou o professor existe, sem montar a grade.
+ * Com uma réplica configurada, a grade recém-alterada é lida do principal (ver {@link LeituraAposEscrita}).
+ */
+@RestController
+@RequestMapping("/api/horarios")
+public class HorarioController {
+
+    private final GradeHorarioService gradeHorarioService;
+    private final OcupacaoGradeService ocupacaoGradeService;
+    private final LeituraAposEscrita leituraAposEscrita; // null sem réplica
+
+    public HorarioController(GradeHorarioService gradeHorarioService, OcupacaoGradeService ocupacaoGradeService,
+                             ObjectProvider<LeituraAposEscrita> leituraAposEscrita) {
+        this.gradeHorarioService = gradeHorarioService;
+        this.ocupacaoGradeService = ocupacaoGradeService;
+        this.leituraAposEscrita = leituraAposEscrita.getIfAvailable();
+    }
+
+    @GetMapping("/turmas/{turmaId}")
+    public ResponseEntity<GradeTurmaResponse> gradeDaTurma(@PathVariable Long turmaId, WebRequest request) {
+        GradeTurmaResponse grade = lendoGrade(GradeAlteradaEvent.Escopo.TURMA, turmaId,
+                () -> gradeHorarioService.gradeDaTurma(turmaId, request::checkNotModified));
+        if (grade == null) {
+            return null; // 304 Not Modified já preparado pelo WebRequest
+        }
+        return ResponseEntity.ok()
+                .eTag(RevisaoGradeService.etagDaTurma(turmaId, grade.revisao()))
+                .cacheControl(CacheControl.noCache())
+                .body(grade);
+    }
+
+    @GetMapping("/professores/{professorId}")
+    public ResponseEntity<GradeProfessorResponse> gradeDoProfessor(@PathVariable Long professorId, WebRequest request) {
+        GradeProfessorResponse grade = lendoGrade(GradeAlteradaEvent.Escopo.PROFESSOR, professorId,
+                () -> gradeHorarioService.gradeDoProfessor(professorId, request::checkNotModified));
+        if (grade == null) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(RevisaoGradeService.etagDoProfessor(professorId, grade.revisao()))
+                .cacheControl(CacheControl.noCache())
+                .body(grade);
+    }
+
+    /**
+     * Horários em que a disciplina pode ser posicionada para a turma, com os professores livres em cada um.
+     * Usado pela edição manual para destacar os destinos válidos de uma aula.
+     */
+    @GetMapping("/turmas/{turmaId}/slots-viaveis")
+    public List<SlotViavel> slotsViaveis(@PathVariable Long turmaId, @RequestParam Long disciplinaId) {
+        return ocupacaoGradeService.buscarSlotsViaveis(turmaId, disciplinaId);
+    }
+
+    private <T> T lendoGrade(GradeAlteradaEvent.Escopo escopo, Long id, Supplier<T> leitura) {
+        return leituraAposEscrita == null ? leitura.get() : leituraAposEscrita.lendoGrade(escopo, id, leitura);
+    }
+}
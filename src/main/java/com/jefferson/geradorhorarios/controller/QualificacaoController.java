@@ -0,0 +1,30 @@
+package com.jefferson.geradorhorarios.controller;
+
+import com.jefferson.geradorhorarios.dto.QualificacaoRequest;
+import com.jefferson.geradorhorarios.dto.ResultadoQualificacao;
+import com.jefferson.geradorhorarios.service.ProfessorService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * API de habilitação de professores em disciplinas.
+ */
+@RestController
+@RequestMapping("/api/qualificacoes")
+public class QualificacaoController {
+
+    private final ProfessorService professorService;
+
+    public QualificacaoController(ProfessorService professorService) {
+        this.professorService = professorService;
+    }
+
+    /**
+     * Habilita em lote os pares (professor, disciplina) informados; pares já existentes são ignorados.
+     */
+    @PostMapping
+    public ResultadoQualificacao qualificar(@RequestBody List<QualificacaoRequest> qualificacoes) {
+        return professorService.qualificarEmLote(qualificacoes);
+    }
+}
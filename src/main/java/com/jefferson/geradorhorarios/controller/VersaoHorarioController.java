@@ -0,0 +1,46 @@
+package com.jefferson.geradorhorarios.controller;
+
+import com.jefferson.geradorhorarios.dto.Alocacao;
+import com.jefferson.geradorhorarios.dto.DiffVersoes;
+import com.jefferson.geradorhorarios.model.VersaoHorario;
+import com.jefferson.geradorhorarios.service.VersaoHorarioService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Set;
+
+/**
+ * API de versões da grade de horários: registrar a grade atual como versão, reconstruir e comparar versões.
+ */
+@RestController
+@RequestMapping("/api/versoes")
+public class VersaoHorarioController {
+
+    private final VersaoHorarioService versaoHorarioService;
+
+    public VersaoHorarioController(VersaoHorarioService versaoHorarioService) {
+        this.versaoHorarioService = versaoHorarioService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public VersaoHorario criarVersao(@RequestParam(required = false) Long versaoPaiId,
+                                     @RequestParam(required = false) String descricao) {
+        return versaoHorarioService.criarVersaoDaGradeAtual(versaoPaiId, descricao);
+    }
+
+    @GetMapping("/{id}")
+    public VersaoHorario buscarVersao(@PathVariable Long id) {
+        return versaoHorarioService.buscarVersaoPorId(id);
+    }
+
+    @GetMapping("/{id}/alocacoes")
+    public Set<Alocacao> alocacoes(@PathVariable Long id) {
+        return versaoHorarioService.reconstruir(id);
+    }
+
+    @GetMapping("/diff")
+    public DiffVersoes diff(@RequestParam Long origem, @RequestParam Long destino) {
+        return versaoHorarioService.diff(origem, destino);
+    }
+}
@@ -0,0 +1,17 @@
+package com.jefferson.geradorhorarios.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Uma alocação (aula posicionada) comparada por valor: duas alocações com a mesma turma, disciplina,
+ * professor, dia e horário são a mesma alocação, independentemente do 'ID' da aula que as originou.
+ */
+public record Alocacao(
+        Long turmaId,
+        Long disciplinaId,
+        Long professorId,
+        DayOfWeek diaSemana,
+        LocalTime horarioInicio,
+        LocalTime horarioFim) {
+}
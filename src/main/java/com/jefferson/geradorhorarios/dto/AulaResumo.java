@@ -0,0 +1,21 @@
+package com.jefferson.geradorhorarios.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Projeção leve de uma aula para listagens e grades de horário.
+ * Traz apenas os IDs e nomes das associações, evitando carregar as entidades e seus proxies LAZY.
+ */
+public record AulaResumo(
+        Long id,
+        DayOfWeek diaSemana,
+        LocalTime horarioInicio,
+        LocalTime horarioFim,
+        Long turmaId,
+        String turmaNome,
+        Long professorId,
+        String professorNome,
+        Long disciplinaId,
+        String disciplinaNome) {
+}
@@ -0,0 +1,14 @@
+package com.jefferson.geradorhorarios.dto;
+
+import java.util.Set;
+
+/**
+ * Diferença entre duas versões da grade de horários.
+ *
+ * @param origemId    O 'ID' da versão de origem.
+ * @param destinoId   O 'ID' da versão de destino.
+ * @param adicionadas As alocações presentes no destino e ausentes na origem.
+ * @param removidas   As alocações presentes na origem e ausentes no destino.
+ */
+public record DiffVersoes(Long origemId, Long destinoId, Set<Alocacao> adicionadas, Set<Alocacao> removidas) {
+}
@@ -0,0 +1,19 @@
+package com.jefferson.geradorhorarios.dto;
+
+import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Projeção leve de uma disponibilidade de professor, com o ID do professor no lugar da entidade.
+ */
+public record DisponibilidadeResumo(
+        Long id,
+        Long professorId,
+        DayOfWeek diaSemana,
+        LocalTime horarioInicio,
+        LocalTime horarioFim,
+        TipoDisponibilidade tipo,
+        String observacao) {
+}
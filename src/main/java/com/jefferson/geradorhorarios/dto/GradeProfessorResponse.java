@@ -0,0 +1,16 @@
+package com.jefferson.geradorhorarios.dto;
+
+import java.util.List;
+
+/**
+ * Grade de horários de um professor, como devolvida pela API de leitura.
+ *
+ * @param professorId      O 'ID' do professor.
+ * @param professorNome    O nome do professor.
+ * @param revisao          A revisão gravada da grade usada para montar o ETag.
+ * @param aulas            As aulas do professor, ordenadas por dia e horário.
+ * @param disponibilidades As disponibilidades e restrições do professor, ordenadas por dia e horário.
+ */
+public record GradeProfessorResponse(Long professorId, String professorNome, String revisao,
+                                     List<AulaResumo> aulas, List<DisponibilidadeResumo> disponibilidades) {
+}
@@ -0,0 +1,14 @@
+package com.jefferson.geradorhorarios.dto;
+
+import java.util.List;
+
+/**
+ * Grade de horários de uma turma, como devolvida pela API de leitura.
+ *
+ * @param turmaId   O 'ID' da turma.
+ * @param turmaNome O nome da turma.
+ * @param revisao   A revisão gravada da grade usada para montar o ETag.
+ * @param aulas     As aulas da turma, ordenadas por dia e horário.
+ */
+public record GradeTurmaResponse(Long turmaId, String turmaNome, String revisao, List<AulaResumo> aulas) {
+}
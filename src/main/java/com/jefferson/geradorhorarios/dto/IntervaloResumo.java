@@ -0,0 +1,14 @@
+package com.jefferson.geradorhorarios.dto;
+
+import java.time.DayOfWeek;
+
+/**
+ * Projeção mínima de uma faixa ocupada na grade (de uma aula ou de uma restrição de disponibilidade).
+ *
+ * @param donoId        O 'ID' do professor ou da turma a que a faixa pertence.
+ * @param diaSemana     O dia da semana.
+ * @param periodoInicio O índice do primeiro período ocupado.
+ * @param periodoFim    O índice seguinte ao último período ocupado (exclusivo).
+ */
+public record IntervaloResumo(Long donoId, DayOfWeek diaSemana, int periodoInicio, int periodoFim) {
+}
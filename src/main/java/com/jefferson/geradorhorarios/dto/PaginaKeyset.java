@@ -0,0 +1,61 @@
+package com.jefferson.geradorhorarios.dto;
+
+import com.jefferson.geradorhorarios.exception.BusinessRuleException;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de uma listagem paginada por chave (keyset/seek).
+ * Em vez de um número de página (OFFSET), o cliente envia o cursor recebido na página anterior,
+ * e o banco continua a leitura a partir dele pelo índice, sem percorrer as linhas já lidas.
+ *
+ * @param itens         Os itens da página, em ordem crescente de ID.
+ * @param proximoCursor O cursor para buscar a próxima página, ou null se esta for a última.
+ */
+public record PaginaKeyset<T>(List<T> itens, Long proximoCursor) {
+
+    public static final int TAMANHO_MAXIMO = 500; // Evita que uma única página volte a carregar a tabela inteira
+
+    /**
+     * Converte o cursor recebido do cliente no valor usado pela consulta.
+     *
+     * @param cursor O cursor da página anterior, ou null para a primeira página.
+     * @return O ID a partir do qual a leitura continua.
+     */
+    public static long cursorDeBusca(Long cursor) {
+        return cursor == null ? 0L : cursor;
+    }
+
+    /**
+     * Valida o tamanho de página e devolve o limite da consulta, com uma linha a mais para detectar a próxima página.
+     *
+     * @param limite O tamanho de página solicitado.
+     * @return O limite a ser passado para o repositório.
+     * @throws BusinessRuleException Se o tamanho estiver fora do intervalo permitido.
+     */
+    public static Limit limiteDeBusca(int limite) {
+        if (limite < 1 || limite > TAMANHO_MAXIMO) {
+            throw new BusinessRuleException("O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO + ".");
+        }
+        return Limit.of(limite + 1);
+    }
+
+    /**
+     * Monta a página a partir de uma consulta que buscou até {@code limite + 1} linhas.
+     * A linha excedente só indica que existe uma próxima página e não é devolvida.
+     *
+     * @param linhas As linhas retornadas pela consulta, ordenadas pela chave.
+     * @param limite O tamanho da página solicitado.
+     * @param chave  Função que extrai a chave (ID) de uma linha.
+     * @return A página montada.
+     */
+    public static <T> PaginaKeyset<T> de(List<T> linhas, int limite, Function<T, Long> chave) {
+        if (linhas.size() <= limite) {
+            return new PaginaKeyset<>(linhas, null);
+        }
+        List<T> itens = linhas.subList(0, limite);
+        return new PaginaKeyset<>(List.copyOf(itens), chave.apply(itens.get(limite - 1)));
+    }
+}
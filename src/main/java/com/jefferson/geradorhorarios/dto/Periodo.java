@@ -0,0 +1,13 @@
+package com.jefferson.geradorhorarios.dto;
+
+import java.time.LocalTime;
+
+/**
+ * Um período de aula da grade horária.
+ *
+ * @param indice        A posição do período no dia (0 para o primeiro).
+ * @param horarioInicio O horário de início do período.
+ * @param horarioFim    O horário de fim do período.
+ */
+public record Periodo(int indice, LocalTime horarioInicio, LocalTime horarioFim) {
+}
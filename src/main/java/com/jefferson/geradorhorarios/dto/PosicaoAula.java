@@ -0,0 +1,21 @@
+package com.jefferson.geradorhorarios.dto;
+
+import com.jefferson.geradorhorarios.model.Aula;
+
+import java.time.DayOfWeek;
+
+/**
+ * A turma, o professor e o dia de uma aula, como IDs simples.
+ * Guarda o estado persistido de uma aula independentemente da entidade gerenciada, que é sobrescrita no merge.
+ *
+ * @param turmaId     O 'ID' da turma.
+ * @param professorId O 'ID' do professor.
+ * @param diaSemana   O dia da semana.
+ */
+public record PosicaoAula(Long turmaId, Long professorId, DayOfWeek diaSemana) {
+
+    public static PosicaoAula de(Aula aula) {
+        return new PosicaoAula(aula.getTurma() == null ? null : aula.getTurma().getId(),
+                aula.getProfessor() == null ? null : aula.getProfessor().getId(), aula.getDiaSemana());
+    }
+}
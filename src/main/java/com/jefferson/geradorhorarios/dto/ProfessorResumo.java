@@ -0,0 +1,7 @@
+package com.jefferson.geradorhorarios.dto;
+
+/**
+ * Projeção leve de um professor, sem as coleções de disponibilidades e disciplinas.
+ */
+public record ProfessorResumo(Long id, String nome, String email) {
+}
@@ -0,0 +1,10 @@
+package com.jefferson.geradorhorarios.dto;
+
+/**
+ * Par (professor, disciplina) a ser habilitado.
+ *
+ * @param professorId  O 'ID' do professor.
+ * @param disciplinaId O 'ID' da disciplina que ele passa a lecionar.
+ */
+public record QualificacaoRequest(Long professorId, Long disciplinaId) {
+}
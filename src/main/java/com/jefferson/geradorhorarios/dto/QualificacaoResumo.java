@@ -0,0 +1,7 @@
+package com.jefferson.geradorhorarios.dto;
+
+/**
+ * Projeção de uma habilitação (professor apto a lecionar uma disciplina), lida da tabela de junção.
+ */
+public record QualificacaoResumo(Long disciplinaId, Long professorId, String professorNome, String professorEmail) {
+}
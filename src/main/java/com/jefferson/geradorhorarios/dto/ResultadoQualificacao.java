@@ -0,0 +1,11 @@
+package com.jefferson.geradorhorarios.dto;
+
+/**
+ * Resumo de uma habilitação em lote.
+ *
+ * @param solicitadas    Quantos pares distintos foram enviados.
+ * @param inseridas      Quantos pares eram novos e foram gravados (os demais já existiam).
+ * @param indeterminadas Quantos pares foram gravados ou já existiam, sem que o banco informasse qual dos dois.
+ */
+public record ResultadoQualificacao(int solicitadas, int inseridas, int indeterminadas) {
+}
@@ -0,0 +1,18 @@
+package com.jefferson.geradorhorarios.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Um horário em que uma disciplina pode ser posicionada para uma turma.
+ *
+ * @param diaSemana     O dia da semana.
+ * @param periodo       O índice do período na grade horária.
+ * @param horarioInicio O horário de início do período.
+ * @param horarioFim    O horário de fim do período.
+ * @param professores   Os professores habilitados na disciplina e livres nesse horário.
+ */
+public record SlotViavel(DayOfWeek diaSemana, int periodo, LocalTime horarioInicio, LocalTime horarioFim,
+                         List<ProfessorResumo> professores) {
+}
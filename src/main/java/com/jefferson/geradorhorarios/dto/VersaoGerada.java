@@ -0,0 +1,16 @@
+package com.jefferson.geradorhorarios.dto;
+
+import com.jefferson.geradorhorarios.gerador.SolucaoHorario;
+import com.jefferson.geradorhorarios.model.VersaoHorario;
+
+import java.util.List;
+
+/**
+ * Uma grade candidata gerada e gravada como versão, sem alterar a grade atual.
+ *
+ * @param versao       A versão criada com as alocações geradas.
+ * @param aulasGeradas Quantas alocações foram criadas pelo gerador.
+ * @param pendencias   As aulas que não couberam na grade.
+ */
+public record VersaoGerada(VersaoHorario versao, int aulasGeradas, List<SolucaoHorario.Pendencia> pendencias) {
+}
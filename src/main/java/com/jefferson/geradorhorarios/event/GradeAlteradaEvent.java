@@ -0,0 +1,40 @@
+package com.jefferson.geradorhorarios.event;
+
+/**
+ * Evento publicado pelos serviços sempre que uma escrita altera a grade de horários de uma turma ou de um professor.
+ * Os interessados (revisões de ETag, caches e índices em memória) escutam este evento para se invalidar.
+ *
+ * @param escopo O escopo afetado pela alteração.
+ * @param id     O 'ID' da turma, do professor ou da disciplina afetada (null para o escopo GERAL).
+ * @param remoto true se a alteração foi feita por outro nó e chegou pelo log de alterações
+ *               (ver {@link com.jefferson.geradorhorarios.service.LogAlteracoesService}); eventos remotos não são registrados de novo.
+ */
+public record GradeAlteradaEvent(Escopo escopo, Long id, boolean remoto) {
+
+    public enum Escopo {
+        TURMA, // Aulas ou dados da turma
+        PROFESSOR, // Aulas, disponibilidades ou disciplinas do professor
+        QUALIFICACAO, // Professores habilitados numa disciplina (inclusive nome e email deles)
+        GERAL // Alterações que afetam todas as grades (por exemplo, o nome de uma disciplina)
+    }
+
+    public static GradeAlteradaEvent turma(Long turmaId) {
+        return new GradeAlteradaEvent(Escopo.TURMA, turmaId, false);
+    }
+
+    public static GradeAlteradaEvent professor(Long professorId) {
+        return new GradeAlteradaEvent(Escopo.PROFESSOR, professorId, false);
+    }
+
+    public static GradeAlteradaEvent qualificacao(Long disciplinaId) {
+        return new GradeAlteradaEvent(Escopo.QUALIFICACAO, disciplinaId, false);
+    }
+
+    public static GradeAlteradaEvent geral() {
+        return new GradeAlteradaEvent(Escopo.GERAL, null, false);
+    }
+
+    public static GradeAlteradaEvent remoto(Escopo escopo, Long id) {
+        return new GradeAlteradaEvent(escopo, id, true);
+    }
+}
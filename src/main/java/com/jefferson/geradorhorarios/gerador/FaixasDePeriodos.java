@@ -0,0 +1,75 @@
+package com.jefferson.geradorhorarios.gerador;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Conversão entre horários e faixas de índices de período [periodoInicio, periodoFim), e das faixas para máscaras de bits.
+ * É a única implementação dessas regras, usada tanto pela grade horária da aplicação quanto pelo gerador (que roda sem Spring).
+ * Os períodos são informados como duas listas paralelas de início e fim, crescentes e sem sobreposição.
+ */
+public final class FaixasDePeriodos {
+
+    private FaixasDePeriodos() {
+    }
+
+    /**
+     * Retorna a máscara da faixa de períodos [periodoInicio, periodoFim): o bit i representa o período de índice i.
+     *
+     * @param periodoInicio O índice do primeiro período.
+     * @param periodoFim    O índice seguinte ao último período (exclusivo).
+     * @return A máscara com os bits da faixa ligados.
+     */
+    public static long mascara(int periodoInicio, int periodoFim) {
+        long ateFim = periodoFim >= Long.SIZE ? -1L : (1L << periodoFim) - 1;
+        long antesDoInicio = (1L << periodoInicio) - 1;
+        return ateFim & ~antesDoInicio;
+    }
+
+    /**
+     * Encontra a faixa de períodos que começa exatamente em {@code inicio} e termina exatamente em {@code fim},
+     * sem atravessar intervalos entre períodos (por exemplo, o almoço entre 12:00 e 13:00).
+     *
+     * @return {periodoInicio, periodoFim}, ou null se o horário não estiver alinhado a períodos consecutivos.
+     */
+    public static int[] faixaAlinhada(List<LocalTime> inicios, List<LocalTime> fins, LocalTime inicio, LocalTime fim) {
+        if (inicio == null || fim == null) {
+            return null;
+        }
+        int primeiro = inicios.indexOf(inicio);
+        if (primeiro < 0) {
+            return null;
+        }
+        for (int i = primeiro; i < fins.size(); i++) {
+            if (fins.get(i).equals(fim)) {
+                return new int[]{primeiro, i + 1};
+            }
+            if (i + 1 >= inicios.size() || !fins.get(i).equals(inicios.get(i + 1))) {
+                return null; // Há um intervalo antes do próximo período
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Encontra todos os períodos atingidos pelo intervalo de horários, mesmo que só em parte.
+     *
+     * @return {periodoInicio, periodoFim}, ou null se o intervalo não atingir nenhum período.
+     */
+    public static int[] faixaQueCobre(List<LocalTime> inicios, List<LocalTime> fins, LocalTime inicio, LocalTime fim) {
+        if (inicio == null || fim == null) {
+            return null;
+        }
+        int primeiro = -1;
+        int ultimo = -1;
+        for (int i = 0; i < inicios.size(); i++) {
+            if (inicios.get(i).isBefore(fim) && fins.get(i).isAfter(inicio)) {
+                if (primeiro < 0) {
+                    primeiro = i;
+                }
+                ultimo = i;
+            }
+        }
+        return primeiro < 0 ? null : new int[]{primeiro, ultimo + 1};
+    }
+}
@@ -0,0 +1,144 @@
+package com.jefferson.geradorhorarios.gerador;
+
+import com.jefferson.geradorhorarios.dto.Alocacao;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Gerador de horários guloso, sem dependências de Spring ou JPA, para ser usado tanto pela aplicação web
+ * quanto pelo modo batch.
+ * Cada turma cursa todas as disciplinas do problema, com {@link ProblemaHorario#cargaSemanal(int) cargaHorariaSemanal}
+ * aulas de um período por semana; as aulas fixas contam para essa carga e nunca são movidas.
+ * As disciplinas com menos professores habilitados são alocadas primeiro, uma aula por vez em rodízio entre as turmas,
+ * preferindo dias em que a turma ainda não tem a disciplina e o professor habilitado com menos aulas.
+ */
+public final class GeradorHorarios {
+
+    public SolucaoHorario gerar(ProblemaHorario problema) {
+        int dias = problema.quantidadeDias();
+        int turmas = problema.quantidadeTurmas();
+        int disciplinas = problema.quantidadeDisciplinas();
+        int professores = problema.quantidadeProfessores();
+        long mascaraCompleta = FaixasDePeriodos.mascara(0, problema.quantidadePeriodos());
+
+        long[][] ocupacaoDaTurma = new long[turmas][dias];
+        long[][] ocupacaoDoProfessor = new long[professores][];
+        for (int p = 0; p < professores; p++) {
+            ocupacaoDoProfessor[p] = problema.bloqueiosDoProfessor(p).clone();
+        }
+        int[] aulasDoProfessor = new int[professores];
+        int[] faltando = new int[turmas * disciplinas];
+        long[] diasComDisciplina = new long[turmas * disciplinas];
+        for (int t = 0; t < turmas; t++) {
+            for (int k = 0; k < disciplinas; k++) {
+                faltando[t * disciplinas + k] = problema.cargaSemanal(k);
+            }
+        }
+
+        List<Alocacao> alocacoes = new ArrayList<>();
+        for (ProblemaHorario.AulaFixa fixa : problema.aulasFixas()) {
+            long mascara = FaixasDePeriodos.mascara(fixa.periodoInicio(), fixa.periodoFim());
+            ocupacaoDaTurma[fixa.turma()][fixa.dia()] |= mascara;
+            ocupacaoDoProfessor[fixa.professor()][fixa.dia()] |= mascara;
+            aulasDoProfessor[fixa.professor()] += Long.bitCount(mascara);
+            faltando[fixa.turma() * disciplinas + fixa.disciplina()] -= Long.bitCount(mascara);
+            diasComDisciplina[fixa.turma() * disciplinas + fixa.disciplina()] |= 1L << fixa.dia();
+            alocacoes.add(alocacao(problema, fixa.turma(), fixa.disciplina(), fixa.professor(),
+                    fixa.dia(), fixa.periodoInicio(), fixa.periodoFim()));
+        }
+
+        int[] ordemDasDisciplinas = IntStream.range(0, disciplinas).boxed()
+                .sorted(Comparator.<Integer>comparingInt(k -> problema.professoresDaDisciplina(k).length)
+                        .thenComparing(k -> -problema.cargaSemanal(k)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        int aulasGeradas = 0;
+        int[] naoAlocadas = new int[turmas * disciplinas];
+        boolean restam = true;
+        while (restam) {
+            restam = false;
+            for (int k : ordemDasDisciplinas) {
+                int[] habilitados = problema.professoresDaDisciplina(k);
+                for (int t = 0; t < turmas; t++) {
+                    int par = t * disciplinas + k;
+                    if (faltando[par] <= 0) {
+                        continue;
+                    }
+                    faltando[par]--;
+                    long livresPorDia = ~diasComDisciplina[par];
+                    int[] posicao = escolher(problema, habilitados, ocupacaoDaTurma[t], ocupacaoDoProfessor,
+                            aulasDoProfessor, mascaraCompleta, livresPorDia, t + k);
+                    if (posicao == null) {
+                        naoAlocadas[par]++;
+                    } else {
+                        int dia = posicao[0];
+                        int periodo = posicao[1];
+                        int professor = posicao[2];
+                        ocupacaoDaTurma[t][dia] |= 1L << periodo;
+                        ocupacaoDoProfessor[professor][dia] |= 1L << periodo;
+                        aulasDoProfessor[professor]++;
+                        diasComDisciplina[par] |= 1L << dia;
+                        alocacoes.add(alocacao(problema, t, k, professor, dia, periodo, periodo + 1));
+                        aulasGeradas++;
+                    }
+                    restam |= faltando[par] > 0;
+                }
+            }
+        }
+
+        List<SolucaoHorario.Pendencia> pendencias = new ArrayList<>();
+        for (int t = 0; t < turmas; t++) {
+            for (int k = 0; k < disciplinas; k++) {
+                if (naoAlocadas[t * disciplinas + k] > 0) {
+                    pendencias.add(new SolucaoHorario.Pendencia(problema.turmaId(t), problema.disciplinaId(k),
+                            naoAlocadas[t * disciplinas + k]));
+                }
+            }
+        }
+        return new SolucaoHorario(alocacoes, aulasGeradas, pendencias);
+    }
+
+    /**
+     * Escolhe (dia, período, professor) para uma aula: primeiro nos dias em que a turma ainda não tem a disciplina,
+     * depois em qualquer dia. Os dias são percorridos a partir de um deslocamento, para espalhar as turmas pela semana.
+     */
+    private static int[] escolher(ProblemaHorario problema, int[] habilitados, long[] ocupacaoDaTurma,
+                                  long[][] ocupacaoDoProfessor, int[] aulasDoProfessor, long mascaraCompleta,
+                                  long diasPreferidos, int deslocamento) {
+        int dias = problema.quantidadeDias();
+        for (int tentativa = 0; tentativa < 2; tentativa++) {
+            for (int i = 0; i < dias; i++) {
+                int dia = (i + deslocamento) % dias;
+                if (tentativa == 0 && (diasPreferidos & (1L << dia)) == 0) {
+                    continue;
+                }
+                long livresDaTurma = mascaraCompleta & ~ocupacaoDaTurma[dia];
+                int melhorProfessor = -1;
+                long melhoresLivres = 0L;
+                for (int p : habilitados) {
+                    long livres = livresDaTurma & ~ocupacaoDoProfessor[p][dia];
+                    if (livres != 0 && (melhorProfessor < 0 || aulasDoProfessor[p] < aulasDoProfessor[melhorProfessor])) {
+                        melhorProfessor = p;
+                        melhoresLivres = livres;
+                    }
+                }
+                if (melhorProfessor >= 0) {
+                    return new int[]{dia, Long.numberOfTrailingZeros(melhoresLivres), melhorProfessor};
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Alocacao alocacao(ProblemaHorario problema, int turma, int disciplina, int professor,
+                                     int dia, int periodoInicio, int periodoFim) {
+        DayOfWeek diaSemana = problema.dias()[dia];
+        return new Alocacao(problema.turmaId(turma), problema.disciplinaId(disciplina), problema.professorId(professor),
+                diaSemana, problema.inicioDoPeriodo(periodoInicio), problema.fimDoPeriodo(periodoFim - 1));
+    }
+}
@@ -0,0 +1,260 @@
+package com.jefferson.geradorhorarios.gerador;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Entrada do gerador de horários em estruturas primitivas, sem entidades JPA.
+ * Turmas, disciplinas e professores são referenciados por índices densos (0..n-1), e a ocupação
+ * de cada dia é um long em que o bit i representa o período i da grade.
+ * Os dias são indexados pela posição em {@link #dias()}, e não por {@link DayOfWeek#ordinal()}.
+ */
+public final class ProblemaHorario {
+
+    /**
+     * Aula já posicionada que o gerador deve manter.
+     */
+    public record AulaFixa(int turma, int disciplina, int professor, int dia, int periodoInicio, int periodoFim) {
+    }
+
+    private final DayOfWeek[] dias;
+    private final LocalTime[] inicioDosPeriodos;
+    private final LocalTime[] fimDosPeriodos;
+    private final long[] turmaIds;
+    private final String[] turmaNomes;
+    private final long[] disciplinaIds;
+    private final String[] disciplinaNomes;
+    private final int[] cargaSemanal;
+    private final long[] professorIds;
+    private final String[] professorNomes;
+    private final int[][] professoresPorDisciplina;
+    private final long[][] bloqueiosPorProfessor;
+    private final List<AulaFixa> aulasFixas;
+
+    private ProblemaHorario(Builder b) {
+        this.dias = b.dias.toArray(DayOfWeek[]::new);
+        this.inicioDosPeriodos = b.inicioDosPeriodos.toArray(LocalTime[]::new);
+        this.fimDosPeriodos = b.fimDosPeriodos.toArray(LocalTime[]::new);
+        this.turmaIds = b.turmaIds.stream().mapToLong(Long::longValue).toArray();
+        this.turmaNomes = b.turmaNomes.toArray(String[]::new);
+        this.disciplinaIds = b.disciplinaIds.stream().mapToLong(Long::longValue).toArray();
+        this.disciplinaNomes = b.disciplinaNomes.toArray(String[]::new);
+        this.cargaSemanal = b.cargaSemanal.stream().mapToInt(Integer::intValue).toArray();
+        this.professorIds = b.professorIds.stream().mapToLong(Long::longValue).toArray();
+        this.professorNomes = b.professorNomes.toArray(String[]::new);
+        this.professoresPorDisciplina = new int[disciplinaIds.length][];
+        for (int k = 0; k < disciplinaIds.length; k++) {
+            this.professoresPorDisciplina[k] = b.qualificacoes.get(k).stream().sorted().mapToInt(Integer::intValue).toArray();
+        }
+        this.bloqueiosPorProfessor = b.bloqueios.toArray(long[][]::new);
+        this.aulasFixas = List.copyOf(b.aulasFixas);
+    }
+
+    public DayOfWeek[] dias() {
+        return dias;
+    }
+
+    public int quantidadeDias() {
+        return dias.length;
+    }
+
+    public int quantidadePeriodos() {
+        return inicioDosPeriodos.length;
+    }
+
+    public LocalTime inicioDoPeriodo(int periodo) {
+        return inicioDosPeriodos[periodo];
+    }
+
+    public LocalTime fimDoPeriodo(int periodo) {
+        return fimDosPeriodos[periodo];
+    }
+
+    public int quantidadeTurmas() {
+        return turmaIds.length;
+    }
+
+    public long turmaId(int turma) {
+        return turmaIds[turma];
+    }
+
+    public String turmaNome(int turma) {
+        return turmaNomes[turma];
+    }
+
+    public int quantidadeDisciplinas() {
+        return disciplinaIds.length;
+    }
+
+    public long disciplinaId(int disciplina) {
+        return disciplinaIds[disciplina];
+    }
+
+    public String disciplinaNome(int disciplina) {
+        return disciplinaNomes[disciplina];
+    }
+
+    public int cargaSemanal(int disciplina) {
+        return cargaSemanal[disciplina];
+    }
+
+    public int quantidadeProfessores() {
+        return professorIds.length;
+    }
+
+    public long professorId(int professor) {
+        return professorIds[professor];
+    }
+
+    public String professorNome(int professor) {
+        return professorNomes[professor];
+    }
+
+    /**
+     * Retorna os índices dos professores habilitados na disciplina, em ordem crescente.
+     */
+    public int[] professoresDaDisciplina(int disciplina) {
+        return professoresPorDisciplina[disciplina];
+    }
+
+    /**
+     * Retorna os períodos bloqueados do professor (folgas, ACs, indisponibilidades), um long por dia.
+     */
+    public long[] bloqueiosDoProfessor(int professor) {
+        return bloqueiosPorProfessor[professor];
+    }
+
+    public List<AulaFixa> aulasFixas() {
+        return aulasFixas;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Monta um {@link ProblemaHorario} linha a linha, pensado para leituras em streaming.
+     * Dias e períodos devem ser informados primeiro, e turmas, disciplinas e professores antes de serem referenciados.
+     * Referências a IDs desconhecidos lançam {@link IllegalArgumentException}.
+     */
+    public static final class Builder {
+        private final List<DayOfWeek> dias = new ArrayList<>();
+        private final List<LocalTime> inicioDosPeriodos = new ArrayList<>();
+        private final List<LocalTime> fimDosPeriodos = new ArrayList<>();
+        private final List<Long> turmaIds = new ArrayList<>();
+        private final List<String> turmaNomes = new ArrayList<>();
+        private final List<Long> disciplinaIds = new ArrayList<>();
+        private final List<String> disciplinaNomes = new ArrayList<>();
+        private final List<Integer> cargaSemanal = new ArrayList<>();
+        private final List<Long> professorIds = new ArrayList<>();
+        private final List<String> professorNomes = new ArrayList<>();
+        private final List<Set<Integer>> qualificacoes = new ArrayList<>();
+        private final List<long[]> bloqueios = new ArrayList<>();
+        private final List<AulaFixa> aulasFixas = new ArrayList<>();
+        private final Map<Long, Integer> indiceDaTurma = new HashMap<>();
+        private final Map<Long, Integer> indiceDaDisciplina = new HashMap<>();
+        private final Map<Long, Integer> indiceDoProfessor = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder dia(DayOfWeek dia) {
+            dias.add(dia);
+            return this;
+        }
+
+        public Builder periodo(LocalTime inicio, LocalTime fim) {
+            if (inicioDosPeriodos.size() == Long.SIZE) {
+                throw new IllegalArgumentException("A grade horária comporta no máximo " + Long.SIZE + " períodos por dia.");
+            }
+            inicioDosPeriodos.add(inicio);
+            fimDosPeriodos.add(fim);
+            return this;
+        }
+
+        public Builder turma(long id, String nome) {
+            indiceDaTurma.put(id, turmaIds.size());
+            turmaIds.add(id);
+            turmaNomes.add(nome);
+            return this;
+        }
+
+        public Builder disciplina(long id, String nome, int cargaHorariaSemanal) {
+            indiceDaDisciplina.put(id, disciplinaIds.size());
+            disciplinaIds.add(id);
+            disciplinaNomes.add(nome);
+            cargaSemanal.add(cargaHorariaSemanal);
+            qualificacoes.add(new HashSet<>());
+            return this;
+        }
+
+        public Builder professor(long id, String nome) {
+            indiceDoProfessor.put(id, professorIds.size());
+            professorIds.add(id);
+            professorNomes.add(nome);
+            bloqueios.add(new long[dias.size()]);
+            return this;
+        }
+
+        public Builder qualificacao(long professorId, long disciplinaId) {
+            qualificacoes.get(indice(indiceDaDisciplina, disciplinaId, "Disciplina")).add(indice(indiceDoProfessor, professorId, "Professor"));
+            return this;
+        }
+
+        /**
+         * Bloqueia a faixa de períodos [periodoInicio, periodoFim) do professor. Dias fora da grade são ignorados.
+         */
+        public Builder bloqueio(long professorId, DayOfWeek dia, int periodoInicio, int periodoFim) {
+            int d = dias.indexOf(dia);
+            if (d >= 0) {
+                bloqueios.get(indice(indiceDoProfessor, professorId, "Professor"))[d] |= FaixasDePeriodos.mascara(periodoInicio, periodoFim);
+            }
+            return this;
+        }
+
+        /**
+         * Bloqueia todos os períodos atingidos pelo intervalo de horários.
+         */
+        public Builder bloqueio(long professorId, DayOfWeek dia, LocalTime inicio, LocalTime fim) {
+            int[] faixa = faixaQueCobre(inicio, fim);
+            return faixa == null ? this : bloqueio(professorId, dia, faixa[0], faixa[1]);
+        }
+
+        public Builder aulaFixa(long turmaId, long disciplinaId, long professorId, DayOfWeek dia,
+                                int periodoInicio, int periodoFim) {
+            int d = dias.indexOf(dia);
+            if (d < 0) {
+                throw new IllegalArgumentException("Aula fixa em dia fora da grade: " + dia);
+            }
+            aulasFixas.add(new AulaFixa(indice(indiceDaTurma, turmaId, "Turma"), indice(indiceDaDisciplina, disciplinaId, "Disciplina"),
+                    indice(indiceDoProfessor, professorId, "Professor"), d, periodoInicio, periodoFim));
+            return this;
+        }
+
+        public Builder aulaFixa(long turmaId, long disciplinaId, long professorId, DayOfWeek dia,
+                                LocalTime inicio, LocalTime fim) {
+            int[] faixa = faixaQueCobre(inicio, fim);
+            if (faixa == null) {
+                throw new IllegalArgumentException("Aula fixa fora da grade: " + dia + " " + inicio + "-" + fim);
+            }
+            return aulaFixa(turmaId, disciplinaId, professorId, dia, faixa[0], faixa[1]);
+        }
+
+        public ProblemaHorario construir() {
+            return new ProblemaHorario(this);
+        }
+
+        private int[] faixaQueCobre(LocalTime inicio, LocalTime fim) {
+            return FaixasDePeriodos.faixaQueCobre(inicioDosPeriodos, fimDosPeriodos, inicio, fim);
+        }
+
+        private static int indice(Map<Long, Integer> indices, long id, String tipo) {
+            Integer indice = indices.get(id);
+            if (indice == null) {
+                throw new IllegalArgumentException(tipo + " não declarado(a) no problema: " + id);
+            }
+            return indice;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.jefferson.geradorhorarios.gerador;
+
+import com.jefferson.geradorhorarios.dto.Alocacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Formato texto (CSV separado por ';') do problema e da solução de horários, usado pelo modo batch
+ * e pela exportação de snapshots da aplicação. Cada linha começa pelo tipo de registro:
+ * <pre>
+ * DIA;MONDAY
+ * PERIODO;08:00;09:00
+ * TURMA;id;nome
+ * DISCIPLINA;id;nome;cargaHorariaSemanal
+ * PROFESSOR;id;nome
+ * QUALIFICACAO;professorId;disciplinaId
+ * BLOQUEIO;professorId;dia;inicio;fim
+ * AULA;turmaId;disciplinaId;professorId;dia;inicio;fim
+ * PENDENCIA;turmaId;disciplinaId;quantidade      (apenas na solução)
+ * </pre>
+ * Linhas em branco e iniciadas por '#' são ignoradas. Os registros devem aparecer nessa ordem de dependência:
+ * dias e períodos antes de tudo, e turmas, disciplinas e professores antes de serem referenciados.
+ */
+public final class ProblemaHorarioCsv {
+
+    private static final String SEPARADOR = ";";
+
+    private ProblemaHorarioCsv() {
+    }
+
+    /**
+     * Lê um problema de horários.
+     *
+     * @param entrada O texto do problema.
+     * @return O problema lido.
+     * @throws IllegalArgumentException Se alguma linha for inválida, com o número da linha na mensagem.
+     */
+    public static ProblemaHorario ler(Reader entrada) {
+        ProblemaHorario.Builder builder = ProblemaHorario.builder();
+        BufferedReader leitor = entrada instanceof BufferedReader b ? b : new BufferedReader(entrada);
+        int numero = 0;
+        try {
+            for (String linha = leitor.readLine(); linha != null; linha = leitor.readLine()) {
+                numero++;
+                linha = linha.strip();
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    lerLinha(builder, linha.split(SEPARADOR, -1));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Linha " + numero + " inválida: " + e.getMessage(), e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder.construir();
+    }
+
+    private static void lerLinha(ProblemaHorario.Builder builder, String[] c) {
+        switch (c[0].strip()) {
+            case "DIA" -> builder.dia(DayOfWeek.valueOf(c[1].strip()));
+            case "PERIODO" -> builder.periodo(LocalTime.parse(c[1].strip()), LocalTime.parse(c[2].strip()));
+            case "TURMA" -> builder.turma(Long.parseLong(c[1].strip()), c[2].strip());
+            case "DISCIPLINA" -> builder.disciplina(Long.parseLong(c[1].strip()), c[2].strip(), Integer.parseInt(c[3].strip()));
+            case "PROFESSOR" -> builder.professor(Long.parseLong(c[1].strip()), c[2].strip());
+            case "QUALIFICACAO" -> builder.qualificacao(Long.parseLong(c[1].strip()), Long.parseLong(c[2].strip()));
+            case "BLOQUEIO" -> builder.bloqueio(Long.parseLong(c[1].strip()), DayOfWeek.valueOf(c[2].strip()),
+                    LocalTime.parse(c[3].strip()), LocalTime.parse(c[4].strip()));
+            case "AULA" -> builder.aulaFixa(Long.parseLong(c[1].strip()), Long.parseLong(c[2].strip()), Long.parseLong(c[3].strip()),
+                    DayOfWeek.valueOf(c[4].strip()), LocalTime.parse(c[5].strip()), LocalTime.parse(c[6].strip()));
+            default -> throw new IllegalArgumentException("tipo de registro desconhecido '" + c[0] + "'");
+        }
+    }
+
+    /**
+     * Escreve um problema de horários no formato lido por {@link #ler(Reader)}.
+     */
+    public static void escrever(ProblemaHorario problema, Writer saida) {
+        try {
+            for (DayOfWeek dia : problema.dias()) {
+                linha(saida, "DIA", dia);
+            }
+            for (int i = 0; i < problema.quantidadePeriodos(); i++) {
+                linha(saida, "PERIODO", problema.inicioDoPeriodo(i), problema.fimDoPeriodo(i));
+            }
+            for (int t = 0; t < problema.quantidadeTurmas(); t++) {
+                linha(saida, "TURMA", problema.turmaId(t), texto(problema.turmaNome(t)));
+            }
+            for (int k = 0; k < problema.quantidadeDisciplinas(); k++) {
+                linha(saida, "DISCIPLINA", problema.disciplinaId(k), texto(problema.disciplinaNome(k)), problema.cargaSemanal(k));
+            }
+            for (int p = 0; p < problema.quantidadeProfessores(); p++) {
+                linha(saida, "PROFESSOR", problema.professorId(p), texto(problema.professorNome(p)));
+            }
+            for (int k = 0; k < problema.quantidadeDisciplinas(); k++) {
+                for (int p : problema.professoresDaDisciplina(k)) {
+                    linha(saida, "QUALIFICACAO", problema.professorId(p), problema.disciplinaId(k));
+                }
+            }
+            for (int p = 0; p < problema.quantidadeProfessores(); p++) {
+                long[] bloqueios = problema.bloqueiosDoProfessor(p);
+                for (int d = 0; d < bloqueios.length; d++) {
+                    // Cada sequência contígua de períodos bloqueados vira uma linha
+                    long bits = bloqueios[d];
+                    while (bits != 0) {
+                        int inicio = Long.numberOfTrailingZeros(bits);
+                        int fim = inicio + Long.numberOfTrailingZeros(~(bits >>> inicio));
+                        linha(saida, "BLOQUEIO", problema.professorId(p), problema.dias()[d],
+                                problema.inicioDoPeriodo(inicio), problema.fimDoPeriodo(fim - 1));
+                        bits &= ~FaixasDePeriodos.mascara(inicio, fim);
+                    }
+                }
+            }
+            for (ProblemaHorario.AulaFixa aula : problema.aulasFixas()) {
+                linha(saida, "AULA", problema.turmaId(aula.turma()), problema.disciplinaId(aula.disciplina()),
+                        problema.professorId(aula.professor()), problema.dias()[aula.dia()],
+                        problema.inicioDoPeriodo(aula.periodoInicio()), problema.fimDoPeriodo(aula.periodoFim() - 1));
+            }
+            saida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escreve a solução: uma linha AULA por alocação e uma linha PENDENCIA por disciplina que não coube na grade.
+     */
+    public static void escrever(SolucaoHorario solucao, Writer saida) {
+        try {
+            for (Alocacao a : solucao.alocacoes()) {
+                linha(saida, "AULA", a.turmaId(), a.disciplinaId(), a.professorId(), a.diaSemana(), a.horarioInicio(), a.horarioFim());
+            }
+            for (SolucaoHorario.Pendencia p : solucao.pendencias()) {
+                linha(saida, "PENDENCIA", p.turmaId(), p.disciplinaId(), p.quantidade());
+            }
+            saida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String texto(String valor) {
+        return valor == null ? "" : valor.replace(SEPARADOR, ",").replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private static void linha(Writer saida, String tipo, Object... campos) throws IOException {
+        saida.write(tipo);
+        for (Object campo : campos) {
+            saida.write(SEPARADOR);
+            saida.write(String.valueOf(campo));
+        }
+        saida.write('\n');
+    }
+}
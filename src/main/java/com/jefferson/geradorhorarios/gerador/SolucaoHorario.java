@@ -0,0 +1,25 @@
+package com.jefferson.geradorhorarios.gerador;
+
+import com.jefferson.geradorhorarios.dto.Alocacao;
+
+import java.util.List;
+
+/**
+ * Resultado de uma geração de horários.
+ *
+ * @param alocacoes    Todas as alocações da grade resultante (as aulas fixas e as geradas).
+ * @param aulasGeradas Quantas alocações foram criadas pelo gerador.
+ * @param pendencias   As aulas que não couberam na grade, por turma e disciplina.
+ */
+public record SolucaoHorario(List<Alocacao> alocacoes, int aulasGeradas, List<Pendencia> pendencias) {
+
+    /**
+     * Aulas de uma disciplina que não puderam ser alocadas para uma turma.
+     *
+     * @param turmaId      O 'ID' da turma.
+     * @param disciplinaId O 'ID' da disciplina.
+     * @param quantidade   Quantas aulas semanais ficaram sem horário.
+     */
+    public record Pendencia(Long turmaId, Long disciplinaId, int quantidade) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.jefferson.geradorhorarios.model;
+
+import com.jefferson.geradorhorarios.dto.Alocacao;
+import com.jefferson.geradorhorarios.model.enums.TipoAlocacaoVersao;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Linha do delta (ou do checkpoint) de uma versão da grade.
+ * As referências a turma, disciplina e professor são IDs simples: o histórico não deve impedir
+ * a exclusão das entidades nem carregá-las ao reconstruir uma versão.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_alocacao_versao_versao", columnList = "versaoId, tipo"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlocacaoVersao implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long versaoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoAlocacaoVersao tipo;
+
+    @Column(nullable = false)
+    private Long turmaId;
+
+    @Column(nullable = false)
+    private Long disciplinaId;
+
+    @Column(nullable = false)
+    private Long professorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DayOfWeek diaSemana;
+
+    @Column(nullable = false)
+    private LocalTime horarioInicio;
+
+    @Column(nullable = false)
+    private LocalTime horarioFim;
+
+    public Alocacao toAlocacao() {
+        return new Alocacao(turmaId, disciplinaId, professorId, diaSemana, horarioInicio, horarioFim);
+    }
+}
@@ -1,5 +1,6 @@
 package com.jefferson.geradorhorarios.model;
 
+import com.jefferson.geradorhorarios.model.listener.PeriodoGradeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,6 +12,12 @@ import java.time.DayOfWeek;
 import java.time.LocalTime;
 
 @Entity
+@EntityListeners(PeriodoGradeListener.class)
+@Table(indexes = {
+        // Atendem às verificações de choque (por faixa de períodos) e aos filtros das listagens por professor/turma
+        @Index(name = "idx_aula_professor_periodo", columnList = "professor_id, diaSemana, periodoInicio"),
+        @Index(name = "idx_aula_turma_periodo", columnList = "turma_id, diaSemana, periodoInicio")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,4 +50,11 @@ public class Aula implements Serializable {
 
     @Column(nullable = false)
     private LocalTime horarioFim;
+
+    // Faixa de períodos da grade horária [periodoInicio, periodoFim), preenchida a partir dos horários
+    @Column(nullable = false)
+    private Integer periodoInicio;
+
+    @Column(nullable = false)
+    private Integer periodoFim;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.jefferson.geradorhorarios.model;
 
 import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
+import com.jefferson.geradorhorarios.model.listener.PeriodoGradeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,6 +13,8 @@ import java.time.DayOfWeek;
 import java.time.LocalTime;
 
 @Entity
+@EntityListeners(PeriodoGradeListener.class)
+@Table(indexes = @Index(name = "idx_disponibilidade_professor_periodo", columnList = "professor_id, diaSemana, periodoInicio"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,4 +46,11 @@ public class DisponibilidadeProfessor implements Serializable {
     private TipoDisponibilidade tipo; // Enum para o tipo de disponibilidade (FOLGA, AC, PREFERENCIA, INDISPONIBILIDADE)
 
     private String observacao; // Campo opcional para detalhes adicionais
+
+    // Faixa de períodos da grade horária atingidos pela disponibilidade [periodoInicio, periodoFim)
+    @Column(nullable = false)
+    private Integer periodoInicio;
+
+    @Column(nullable = false)
+    private Integer periodoFim;
 }
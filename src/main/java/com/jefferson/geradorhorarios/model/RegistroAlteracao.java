@@ -0,0 +1,41 @@
+package com.jefferson.geradorhorarios.model;
+
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Linha do log de alterações da grade, numerada em ordem crescente pelo banco.
+ * Cada nó da aplicação acompanha o log para invalidar os seus caches quando outro nó escreve.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_registro_alteracao_criado_em", columnList = "criadoEm"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistroAlteracao implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GradeAlteradaEvent.Escopo escopo;
+
+    private Long entidadeId; // 'ID' da turma ou do professor; null para o escopo GERAL
+
+    @Column(nullable = false, length = 64)
+    private String origem; // Nó que fez a alteração
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+}
@@ -0,0 +1,70 @@
+package com.jefferson.geradorhorarios.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Aula ou disponibilidade gravada antes da grade horária que não pôde ser migrada para ela
+ * (dia não letivo, fora de todos os períodos, atravessando um intervalo ou chocando com outra aula).
+ * A linha original é removida e guardada aqui, com o motivo, para correção manual: assim toda aula e toda
+ * disponibilidade no banco tem uma faixa de períodos.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistroQuarentena implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public enum Origem {
+        AULA,
+        DISPONIBILIDADE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Origem origem;
+
+    @Column(nullable = false)
+    private Long registroId; // 'ID' da aula ou da disponibilidade removida
+
+    @Column(nullable = false)
+    private Long professorId;
+
+    private Long turmaId; // Apenas para aulas
+
+    private Long disciplinaId; // Apenas para aulas
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DayOfWeek diaSemana;
+
+    @Column(nullable = false)
+    private LocalTime horarioInicio;
+
+    @Column(nullable = false)
+    private LocalTime horarioFim;
+
+    private String tipo; // Tipo da disponibilidade; null para aulas
+
+    private String observacao;
+
+    @Column(nullable = false, length = 500)
+    private String motivo;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+}
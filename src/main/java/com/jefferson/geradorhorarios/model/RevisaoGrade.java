@@ -0,0 +1,32 @@
+package com.jefferson.geradorhorarios.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Revisão gravada da grade de uma turma, de um professor ou dos dados gerais (nomes de disciplinas, por exemplo).
+ * Incrementada na mesma transação da escrita, é a mesma em todos os nós e sobrevive a reinícios,
+ * de modo que os ETags da API de leitura continuam válidos entre nós e entre execuções.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevisaoGrade implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 80)
+    private String chave; // Escopo e 'ID', por exemplo "TURMA:12"; "GERAL" para o escopo geral
+
+    @Column(nullable = false)
+    private Long revisao;
+}
@@ -0,0 +1,46 @@
+package com.jefferson.geradorhorarios.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersaoHorario implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Guardado como ID simples (e não @ManyToOne) porque a cadeia de versões é lida de uma vez, por consulta recursiva
+    private Long versaoPaiId;
+
+    @Column(nullable = false)
+    private Integer profundidade; // Distância até a versão raiz
+
+    @Column(nullable = false)
+    private Integer distanciaDoCheckpoint; // 0 quando a própria versão é um checkpoint
+
+    @Column(nullable = false)
+    private Boolean checkpoint; // Se a versão guarda a cópia completa das alocações, além do delta
+
+    @Column(nullable = false)
+    private Integer quantidadeAlocacoes;
+
+    @Column(nullable = false)
+    private Integer quantidadeAlteracoes; // Tamanho do delta em relação à versão pai
+
+    private String descricao;
+
+    @Column(nullable = false)
+    private LocalDateTime criadaEm;
+}
@@ -0,0 +1,7 @@
+package com.jefferson.geradorhorarios.model.enums;
+
+public enum TipoAlocacaoVersao {
+    ADICIONADA, // Alocação acrescentada em relação à versão pai
+    REMOVIDA, // Alocação retirada em relação à versão pai
+    CHECKPOINT // Alocação da cópia completa guardada nas versões de checkpoint
+}
@@ -0,0 +1,31 @@
+package com.jefferson.geradorhorarios.model.listener;
+
+import com.jefferson.geradorhorarios.model.Aula;
+import com.jefferson.geradorhorarios.model.DisponibilidadeProfessor;
+import com.jefferson.geradorhorarios.service.GradeHorariaService;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Mantém a faixa de períodos de aulas e disponibilidades coerente com os horários, inclusive quando
+ * a entidade é gravada por cascata (por exemplo, disponibilidades salvas junto com o professor).
+ * Instanciado pelo Hibernate através do contêiner de beans do Spring, que injeta a grade horária.
+ */
+public class PeriodoGradeListener {
+
+    private final GradeHorariaService gradeHorariaService;
+
+    public PeriodoGradeListener(GradeHorariaService gradeHorariaService) {
+        this.gradeHorariaService = gradeHorariaService;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void preencherPeriodos(Object entidade) {
+        if (entidade instanceof Aula aula) {
+            gradeHorariaService.alinharAula(aula);
+        } else if (entidade instanceof DisponibilidadeProfessor disponibilidade) {
+            gradeHorariaService.ajustarDisponibilidade(disponibilidade);
+        }
+    }
+}
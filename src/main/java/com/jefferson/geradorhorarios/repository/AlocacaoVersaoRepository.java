@@ -0,0 +1,31 @@
+package com.jefferson.geradorhorarios.repository;
+
+import com.jefferson.geradorhorarios.model.AlocacaoVersao;
+import com.jefferson.geradorhorarios.model.enums.TipoAlocacaoVersao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AlocacaoVersaoRepository extends JpaRepository<AlocacaoVersao, Long> {
+
+    /**
+     * Encontra as linhas de um tipo para uma versão (por exemplo, a cópia completa de um checkpoint).
+     *
+     * @param versaoId O 'ID' da versão.
+     * @param tipo     O tipo das linhas.
+     * @return As linhas encontradas.
+     */
+    List<AlocacaoVersao> findByVersaoIdAndTipo(Long versaoId, TipoAlocacaoVersao tipo);
+
+    /**
+     * Encontra, numa única consulta, as linhas de delta de várias versões.
+     *
+     * @param versaoIds Os 'IDs' das versões.
+     * @param tipos     Os tipos de linha desejados.
+     * @return As linhas encontradas.
+     */
+    List<AlocacaoVersao> findByVersaoIdInAndTipoIn(Collection<Long> versaoIds, Collection<TipoAlocacaoVersao> tipos);
+}
@@ -1,15 +1,22 @@
 package com.jefferson.geradorhorarios.repository;
 
+import com.jefferson.geradorhorarios.dto.Alocacao;
+import com.jefferson.geradorhorarios.dto.AulaResumo;
+import com.jefferson.geradorhorarios.dto.IntervaloResumo;
+import com.jefferson.geradorhorarios.dto.PosicaoAula;
 import com.jefferson.geradorhorarios.model.Aula;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
-import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AulaRepository extends JpaRepository<Aula, Long> {
+public interface AulaRepository extends JpaRepository<Aula, Long>, AulaRepositoryCustom {
     // Métodos de busca personalizados:
 
     /**
@@ -29,38 +36,165 @@ public interface AulaRepository extends JpaRepository<Aula, Long> {
     List<Aula> findByTurmaId(Long turmaId);
 
     /**
-     * Encontra aulas para um dado dia da semana sobreposta a um intervalo de tempo.
-     * Isso significa que a aula começa antes ou igual ao fim do intervalo E termina depois ou igual ao início do intervalo.
+     * Encontra aulas de um dado dia da semana que ocupem algum período da faixa informada.
      *
-     * @param diaSemana              O dia da semana.
-     * @param horarioFimIntervalo    O horário de fim do intervalo de busca.
-     * @param horarioInicioIntervalo O horário de início do intervalo de busca.
-     * @return Uma lista de aulas sobrepostas ao intervalo.
+     * @param diaSemana     O dia da semana.
+     * @param periodoFim    O período seguinte ao último da faixa de busca (exclusivo).
+     * @param periodoInicio O primeiro período da faixa de busca.
+     * @return Uma lista de aulas sobrepostas à faixa.
      */
-    List<Aula> findByDiaSemanaAndHorarioInicioLessThanEqualAndHorarioFimGreaterThanEqual(
-            DayOfWeek diaSemana, LocalTime horarioFimIntervalo, LocalTime horarioInicioIntervalo);
+    List<Aula> findByDiaSemanaAndPeriodoInicioLessThanAndPeriodoFimGreaterThan(
+            DayOfWeek diaSemana, int periodoFim, int periodoInicio);
 
     /**
-     * Encontra aulas de um professor específico para um dado dia da semana sobreposta a um intervalo de tempo.
+     * Encontra aulas de um professor específico num dado dia da semana que ocupem algum período da faixa informada.
      *
-     * @param professorId            O 'ID' do professor.
-     * @param diaSemana              O dia da semana.
-     * @param horarioFimIntervalo    O horário de fim do intervalo de busca.
-     * @param horarioInicioIntervalo O horário de início do intervalo de busca.
-     * @return Uma lista de aulas do professor sobreposto ao intervalo.
+     * @param professorId   O 'ID' do professor.
+     * @param diaSemana     O dia da semana.
+     * @param periodoFim    O período seguinte ao último da faixa de busca (exclusivo).
+     * @param periodoInicio O primeiro período da faixa de busca.
+     * @return Uma lista de aulas do professor sobrepostas à faixa.
      */
-    List<Aula> findByProfessorIdAndDiaSemanaAndHorarioInicioLessThanEqualAndHorarioFimGreaterThanEqual(
-            Long professorId, DayOfWeek diaSemana, LocalTime horarioFimIntervalo, LocalTime horarioInicioIntervalo);
+    List<Aula> findByProfessorIdAndDiaSemanaAndPeriodoInicioLessThanAndPeriodoFimGreaterThan(
+            Long professorId, DayOfWeek diaSemana, int periodoFim, int periodoInicio);
 
     /**
-     * Encontra aulas de uma turma específica para um dado dia da semana sobreposta a um intervalo de tempo.
+     * Encontra aulas de uma turma específica num dado dia da semana que ocupem algum período da faixa informada.
      *
-     * @param turmaId                O 'ID' da turma.
-     * @param diaSemana              O dia da semana.
-     * @param horarioFimIntervalo    O horário de fim do intervalo de busca.
-     * @param horarioInicioIntervalo O horário de início do intervalo de busca.
-     * @return Uma lista de aulas da turma sobreposta ao intervalo.
+     * @param turmaId       O 'ID' da turma.
+     * @param diaSemana     O dia da semana.
+     * @param periodoFim    O período seguinte ao último da faixa de busca (exclusivo).
+     * @param periodoInicio O primeiro período da faixa de busca.
+     * @return Uma lista de aulas da turma sobrepostas à faixa.
      */
-    List<Aula> findByTurmaIdAndDiaSemanaAndHorarioInicioLessThanEqualAndHorarioFimGreaterThanEqual(
-            Long turmaId, DayOfWeek diaSemana, LocalTime horarioFimIntervalo, LocalTime horarioInicioIntervalo);
+    List<Aula> findByTurmaIdAndDiaSemanaAndPeriodoInicioLessThanAndPeriodoFimGreaterThan(
+            Long turmaId, DayOfWeek diaSemana, int periodoFim, int periodoInicio);
+
+    /**
+     * Verifica se o professor já tem outra aula no dia que ocupe algum período da faixa informada.
+     *
+     * @param professorId   O 'ID' do professor.
+     * @param diaSemana     O dia da semana.
+     * @param periodoInicio O primeiro período da aula a ser verificada.
+     * @param periodoFim    O período seguinte ao último da aula a ser verificada (exclusivo).
+     * @param aulaId        O 'ID' da própria aula (ignorada na verificação), ou null para uma aula nova.
+     * @return true se existir choque de horário.
+     */
+    @Query("""
+            select count(a) > 0 from Aula a
+            where a.professor.id = :professorId and a.diaSemana = :diaSemana
+              and a.periodoInicio < :periodoFim and a.periodoFim > :periodoInicio
+              and (:aulaId is null or a.id <> :aulaId)
+            """)
+    boolean existeChoqueDoProfessor(@Param("professorId") Long professorId, @Param("diaSemana") DayOfWeek diaSemana,
+                                    @Param("periodoInicio") int periodoInicio, @Param("periodoFim") int periodoFim,
+                                    @Param("aulaId") Long aulaId);
+
+    /**
+     * Verifica se a turma já tem outra aula no dia que ocupe algum período da faixa informada.
+     *
+     * @param turmaId       O 'ID' da turma.
+     * @param diaSemana     O dia da semana.
+     * @param periodoInicio O primeiro período da aula a ser verificada.
+     * @param periodoFim    O período seguinte ao último da aula a ser verificada (exclusivo).
+     * @param aulaId        O 'ID' da própria aula (ignorada na verificação), ou null para uma aula nova.
+     * @return true se existir choque de horário.
+     */
+    @Query("""
+            select count(a) > 0 from Aula a
+            where a.turma.id = :turmaId and a.diaSemana = :diaSemana
+              and a.periodoInicio < :periodoFim and a.periodoFim > :periodoInicio
+              and (:aulaId is null or a.id <> :aulaId)
+            """)
+    boolean existeChoqueDaTurma(@Param("turmaId") Long turmaId, @Param("diaSemana") DayOfWeek diaSemana,
+                                @Param("periodoInicio") int periodoInicio, @Param("periodoFim") int periodoFim,
+                                @Param("aulaId") Long aulaId);
+
+    /**
+     * Busca as aulas de uma turma já projetadas em {@link AulaResumo}, numa única consulta.
+     *
+     * @param turmaId O 'ID' da turma.
+     * @return As aulas da turma.
+     */
+    @Query("""
+            select new com.jefferson.geradorhorarios.dto.AulaResumo(
+                a.id, a.diaSemana, a.horarioInicio, a.horarioFim, t.id, t.nome, p.id, p.nome, d.id, d.nome)
+            from Aula a join a.turma t join a.professor p join a.disciplina d
+            where t.id = :turmaId
+            """)
+    List<AulaResumo> buscarResumosPorTurma(@Param("turmaId") Long turmaId);
+
+    /**
+     * Busca as aulas de um professor já projetadas em {@link AulaResumo}, numa única consulta.
+     *
+     * @param professorId O 'ID' do professor.
+     * @return As aulas do professor.
+     */
+    @Query("""
+            select new com.jefferson.geradorhorarios.dto.AulaResumo(
+                a.id, a.diaSemana, a.horarioInicio, a.horarioFim, t.id, t.nome, p.id, p.nome, d.id, d.nome)
+            from Aula a join a.turma t join a.professor p join a.disciplina d
+            where p.id = :professorId
+            """)
+    List<AulaResumo> buscarResumosPorProfessor(@Param("professorId") Long professorId);
+
+    /**
+     * Busca todas as aulas como alocações comparáveis por valor, sem carregar entidades.
+     *
+     * @return As alocações da grade atual.
+     */
+    @Query("""
+            select new com.jefferson.geradorhorarios.dto.Alocacao(
+                a.turma.id, a.disciplina.id, a.professor.id, a.diaSemana, a.horarioInicio, a.horarioFim)
+            from Aula a
+            """)
+    List<Alocacao> buscarAlocacoes();
+
+    /**
+     * Busca apenas as faixas de períodos ocupadas pelas aulas de vários professores, numa única consulta.
+     *
+     * @param professorIds Os 'IDs' dos professores.
+     * @return Os intervalos das aulas, com o professor como dono.
+     */
+    @Query("""
+            select new com.jefferson.geradorhorarios.dto.IntervaloResumo(
+                a.professor.id, a.diaSemana, a.periodoInicio, a.periodoFim)
+            from Aula a
+            where a.professor.id in :professorIds
+            """)
+    List<IntervaloResumo> buscarIntervalosPorProfessores(@Param("professorIds") Collection<Long> professorIds);
+
+    /**
+     * Busca apenas as faixas de períodos ocupadas pelas aulas de uma turma.
+     *
+     * @param turmaId O 'ID' da turma.
+     * @return Os intervalos das aulas da turma.
+     */
+    @Query("""
+            select new com.jefferson.geradorhorarios.dto.IntervaloResumo(
+                a.turma.id, a.diaSemana, a.periodoInicio, a.periodoFim)
+            from Aula a
+            where a.turma.id = :turmaId
+            """)
+    List<IntervaloResumo> buscarIntervalosPorTurma(@Param("turmaId") Long turmaId);
+
+    /**
+     * Busca a turma, o professor e o dia persistidos de uma aula, sem carregar a entidade no contexto de persistência.
+     *
+     * @param id O 'ID' da aula.
+     * @return A posição persistida, se a aula existir.
+     */
+    @Query("""
+            select new com.jefferson.geradorhorarios.dto.PosicaoAula(a.turma.id, a.professor.id, a.diaSemana)
+            from Aula a
+            where a.id = :id
+            """)
+    Optional<PosicaoAula> buscarPosicao(@Param("id") Long id);
+
+    /**
+     * Encontra as aulas ainda sem faixa de períodos (gravadas antes da grade horária).
+     *
+     * @return As aulas a migrar.
+     */
+    List<Aula> findByPeriodoInicioIsNull();
 }
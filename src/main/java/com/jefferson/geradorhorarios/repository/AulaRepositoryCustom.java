@@ -0,0 +1,27 @@
+package com.jefferson.geradorhorarios.repository;
+
+import com.jefferson.geradorhorarios.dto.AulaResumo;
+import org.springframework.data.domain.Limit;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+/**
+ * Consultas de aulas montadas dinamicamente (ver {@link AulaRepositoryCustomImpl}).
+ */
+public interface AulaRepositoryCustom {
+
+    /**
+     * Busca uma página de aulas paginada por chave (keyset), já projetada em {@link AulaResumo}.
+     * Só os filtros informados entram no SQL, para que um filtro seletivo (turma ou professor) possa usar o seu índice
+     * em vez de percorrer a chave primária.
+     *
+     * @param cursor      O ID da última aula da página anterior (0 para a primeira página).
+     * @param diaSemana   Filtro opcional pelo dia da semana.
+     * @param turmaId     Filtro opcional pelo 'ID' da turma.
+     * @param professorId Filtro opcional pelo 'ID' do professor.
+     * @param limite      A quantidade máxima de linhas retornadas.
+     * @return As aulas com ID maior que o cursor, em ordem crescente de ID.
+     */
+    List<AulaResumo> buscarPagina(long cursor, DayOfWeek diaSemana, Long turmaId, Long professorId, Limit limite);
+}
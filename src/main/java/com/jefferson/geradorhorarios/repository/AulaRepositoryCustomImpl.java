@@ -0,0 +1,52 @@
+package com.jefferson.geradorhorarios.repository;
+
+import com.jefferson.geradorhorarios.dto.AulaResumo;
+import com.jefferson.geradorhorarios.model.Aula;
+import com.jefferson.geradorhorarios.model.Disciplina;
+import com.jefferson.geradorhorarios.model.Professor;
+import com.jefferson.geradorhorarios.model.Turma;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+class AulaRepositoryCustomImpl implements AulaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AulaResumo> buscarPagina(long cursor, DayOfWeek diaSemana, Long turmaId, Long professorId, Limit limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AulaResumo> consulta = cb.createQuery(AulaResumo.class);
+        Root<Aula> a = consulta.from(Aula.class);
+        Join<Aula, Turma> t = a.join("turma");
+        Join<Aula, Professor> p = a.join("professor");
+        Join<Aula, Disciplina> d = a.join("disciplina");
+        consulta.select(cb.construct(AulaResumo.class,
+                a.get("id"), a.get("diaSemana"), a.get("horarioInicio"), a.get("horarioFim"),
+                t.get("id"), t.get("nome"), p.get("id"), p.get("nome"), d.get("id"), d.get("nome")));
+
+        List<Predicate> filtros = new ArrayList<>(4);
+        filtros.add(cb.gt(a.get("id"), cursor));
+        if (diaSemana != null) {
+            filtros.add(cb.equal(a.get("diaSemana"), diaSemana));
+        }
+        if (turmaId != null) {
+            filtros.add(cb.equal(a.get("turma").get("id"), turmaId));
+        }
+        if (professorId != null) {
+            filtros.add(cb.equal(a.get("professor").get("id"), professorId));
+        }
+        consulta.where(filtros.toArray(Predicate[]::new)).orderBy(cb.asc(a.get("id")));
+        return entityManager.createQuery(consulta).setMaxResults(limite.max()).getResultList();
+    }
+}
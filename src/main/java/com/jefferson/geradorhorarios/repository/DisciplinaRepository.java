@@ -2,8 +2,22 @@ package com.jefferson.geradorhorarios.repository;
 
 import com.jefferson.geradorhorarios.model.Disciplina;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface DisciplinaRepository extends JpaRepository<Disciplina, Long> {
+
+    /**
+     * Filtra, dentre os 'IDs' informados, os que pertencem a disciplinas cadastradas.
+     *
+     * @param ids Os 'IDs' a verificar.
+     * @return Os 'IDs' existentes.
+     */
+    @Query("select d.id from Disciplina d where d.id in :ids")
+    List<Long> buscarIdsExistentes(@Param("ids") Collection<Long> ids);
 }
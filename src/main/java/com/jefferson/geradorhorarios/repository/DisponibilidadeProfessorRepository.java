@@ -1,9 +1,55 @@
 package com.jefferson.geradorhorarios.repository;
 
+import com.jefferson.geradorhorarios.dto.DisponibilidadeResumo;
+import com.jefferson.geradorhorarios.dto.IntervaloResumo;
 import com.jefferson.geradorhorarios.model.DisponibilidadeProfessor;
+import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface DisponibilidadeProfessorRepository extends JpaRepository<DisponibilidadeProfessor, Long> {
+public interface DisponibilidadeProfessorRepository extends JpaRepository<DisponibilidadeProfessor, Long>,
+        DisponibilidadeProfessorRepositoryCustom {
+
+    /**
+     * Busca as disponibilidades de um professor já projetadas em {@link DisponibilidadeResumo}.
+     *
+     * @param professorId O 'ID' do professor.
+     * @return As disponibilidades do professor.
+     */
+    @Query("""
+            select new com.jefferson.geradorhorarios.dto.DisponibilidadeResumo(
+                d.id, d.professor.id, d.diaSemana, d.horarioInicio, d.horarioFim, d.tipo, d.observacao)
+            from DisponibilidadeProfessor d
+            where d.professor.id = :professorId
+            """)
+    List<DisponibilidadeResumo> buscarResumosPorProfessor(@Param("professorId") Long professorId);
+
+    /**
+     * Busca as faixas de períodos das disponibilidades de vários professores com os tipos informados, numa única consulta.
+     *
+     * @param professorIds Os 'IDs' dos professores.
+     * @param tipos        Os tipos de disponibilidade desejados (por exemplo, os que bloqueiam aulas).
+     * @return Os intervalos encontrados, com o professor como dono.
+     */
+    @Query("""
+            select new com.jefferson.geradorhorarios.dto.IntervaloResumo(
+                d.professor.id, d.diaSemana, d.periodoInicio, d.periodoFim)
+            from DisponibilidadeProfessor d
+            where d.professor.id in :professorIds and d.tipo in :tipos
+            """)
+    List<IntervaloResumo> buscarIntervalosPorProfessores(@Param("professorIds") Collection<Long> professorIds,
+                                                         @Param("tipos") Collection<TipoDisponibilidade> tipos);
+
+    /**
+     * Encontra as disponibilidades ainda sem faixa de períodos (gravadas antes da grade horária).
+     *
+     * @return As disponibilidades a migrar.
+     */
+    List<DisponibilidadeProfessor> findByPeriodoInicioIsNull();
 }
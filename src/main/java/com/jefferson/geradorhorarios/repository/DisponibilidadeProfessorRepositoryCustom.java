@@ -0,0 +1,28 @@
+package com.jefferson.geradorhorarios.repository;
+
+import com.jefferson.geradorhorarios.dto.DisponibilidadeResumo;
+import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
+import org.springframework.data.domain.Limit;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+/**
+ * Consultas de disponibilidades montadas dinamicamente (ver {@link DisponibilidadeProfessorRepositoryCustomImpl}).
+ */
+public interface DisponibilidadeProfessorRepositoryCustom {
+
+    /**
+     * Busca uma página de disponibilidades paginada por chave (keyset), já projetada em {@link DisponibilidadeResumo}.
+     * Só os filtros informados entram no SQL, para que o filtro por professor possa usar o seu índice.
+     *
+     * @param cursor      O ID da última disponibilidade da página anterior (0 para a primeira página).
+     * @param professorId Filtro opcional pelo 'ID' do professor.
+     * @param diaSemana   Filtro opcional pelo dia da semana.
+     * @param tipo        Filtro opcional pelo tipo de disponibilidade.
+     * @param limite      A quantidade máxima de linhas retornadas.
+     * @return As disponibilidades com ID maior que o cursor, em ordem crescente de ID.
+     */
+    List<DisponibilidadeResumo> buscarPagina(long cursor, Long professorId, DayOfWeek diaSemana,
+                                             TipoDisponibilidade tipo, Limit limite);
+}
@@ -0,0 +1,47 @@
+package com.jefferson.geradorhorarios.repository;
+
+import com.jefferson.geradorhorarios.dto.DisponibilidadeResumo;
+import com.jefferson.geradorhorarios.model.DisponibilidadeProfessor;
+import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+class DisponibilidadeProfessorRepositoryCustomImpl implements DisponibilidadeProfessorRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DisponibilidadeResumo> buscarPagina(long cursor, Long professorId, DayOfWeek diaSemana,
+                                                    TipoDisponibilidade tipo, Limit limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DisponibilidadeResumo> consulta = cb.createQuery(DisponibilidadeResumo.class);
+        Root<DisponibilidadeProfessor> d = consulta.from(DisponibilidadeProfessor.class);
+        consulta.select(cb.construct(DisponibilidadeResumo.class,
+                d.get("id"), d.get("professor").get("id"), d.get("diaSemana"), d.get("horarioInicio"),
+                d.get("horarioFim"), d.get("tipo"), d.get("observacao")));
+
+        List<Predicate> filtros = new ArrayList<>(4);
+        filtros.add(cb.gt(d.get("id"), cursor));
+        if (professorId != null) {
+            filtros.add(cb.equal(d.get("professor").get("id"), professorId));
+        }
+        if (diaSemana != null) {
+            filtros.add(cb.equal(d.get("diaSemana"), diaSemana));
+        }
+        if (tipo != null) {
+            filtros.add(cb.equal(d.get("tipo"), tipo));
+        }
+        consulta.where(filtros.toArray(Predicate[]::new)).orderBy(cb.asc(d.get("id")));
+        return entityManager.createQuery(consulta).setMaxResults(limite.max()).getResultList();
+    }
+}
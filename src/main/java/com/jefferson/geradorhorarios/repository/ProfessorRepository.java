@@ -1,9 +1,85 @@
 package com.jefferson.geradorhorarios.repository;
 
+import com.jefferson.geradorhorarios.dto.ProfessorResumo;
+import com.jefferson.geradorhorarios.dto.QualificacaoResumo;
 import com.jefferson.geradorhorarios.model.Professor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ProfessorRepository extends JpaRepository<Professor, Long> {
+
+    /**
+     * Busca uma página de professores paginada por chave (keyset), sem carregar as coleções LAZY.
+     *
+     * @param cursor O ID do último professor da página anterior (0 para a primeira página).
+     * @param limite A quantidade máxima de linhas retornadas.
+     * @return Os professores com ID maior que o cursor, em ordem crescente de ID.
+     */
+    @Query("""
+            select new com.jefferson.geradorhorarios.dto.ProfessorResumo(p.id, p.nome, p.email)
+            from Professor p
+            where p.id > :cursor
+            order by p.id
+            """)
+    List<ProfessorResumo> buscarPagina(@Param("cursor") long cursor, Limit limite);
+
+    /**
+     * Busca todas as habilitações (professor, disciplina) numa única consulta sobre a tabela de junção.
+     *
+     * @return As habilitações, com os dados resumidos do professor.
+     */
+    @Query("""
+            select new com.jefferson.geradorhorarios.dto.QualificacaoResumo(d.id, p.id, p.nome, p.email)
+            from Professor p join p.disciplinasLecionadas d
+            order by d.id, p.id
+            """)
+    List<QualificacaoResumo> buscarQualificacoes();
+
+    /**
+     * Busca os professores habilitados numa disciplina, já projetados em {@link ProfessorResumo}.
+     *
+     * @param disciplinaId O 'ID' da disciplina.
+     * @return Os professores habilitados, em ordem de 'ID'.
+     */
+    @Query("""
+            select new com.jefferson.geradorhorarios.dto.ProfessorResumo(p.id, p.nome, p.email)
+            from Professor p join p.disciplinasLecionadas d
+            where d.id = :disciplinaId
+            order by p.id
+            """)
+    List<ProfessorResumo> buscarQualificados(@Param("disciplinaId") Long disciplinaId);
+
+    /**
+     * Busca os 'IDs' das disciplinas em que o professor está habilitado, sem carregar a coleção.
+     *
+     * @param professorId O 'ID' do professor.
+     * @return Os 'IDs' das disciplinas.
+     */
+    @Query("select d.id from Professor p join p.disciplinasLecionadas d where p.id = :professorId")
+    List<Long> buscarIdsDasDisciplinas(@Param("professorId") Long professorId);
+
+    /**
+     * Filtra, dentre os 'IDs' informados, os que pertencem a professores cadastrados.
+     *
+     * @param ids Os 'IDs' a verificar.
+     * @return Os 'IDs' existentes.
+     */
+    @Query("select p.id from Professor p where p.id in :ids")
+    List<Long> buscarIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Trava as linhas dos professores informados até o fim da transação (SELECT ... FOR UPDATE), em ordem de 'ID'.
+     *
+     * @param ids Os 'IDs' dos professores.
+     * @return Os 'IDs' travados.
+     */
+    @Query(value = "select id from professor where id in (:ids) order by id for update", nativeQuery = true)
+    List<Long> travarPorIds(@Param("ids") Collection<Long> ids);
 }
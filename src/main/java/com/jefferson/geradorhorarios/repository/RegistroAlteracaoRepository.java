@@ -0,0 +1,50 @@
+package com.jefferson.geradorhorarios.repository;
+
+import com.jefferson.geradorhorarios.model.RegistroAlteracao;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RegistroAlteracaoRepository extends JpaRepository<RegistroAlteracao, Long> {
+
+    /**
+     * Busca os registros seguintes ao cursor, em ordem de 'ID'.
+     *
+     * @param cursor O último 'ID' já processado.
+     * @param limite A quantidade máxima de registros.
+     * @return Os registros encontrados.
+     */
+    List<RegistroAlteracao> findByIdGreaterThanOrderByIdAsc(Long cursor, Limit limite);
+
+    /**
+     * Busca os registros com os 'IDs' informados (por exemplo, os que faltavam numa lacuna).
+     *
+     * @param ids Os 'IDs' procurados.
+     * @return Os registros que já existem.
+     */
+    List<RegistroAlteracao> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Retorna o maior 'ID' do log, ou 0 se o log estiver vazio.
+     */
+    @Query("select coalesce(max(r.id), 0) from RegistroAlteracao r")
+    long buscarUltimoId();
+
+    /**
+     * Apaga os registros criados antes do instante informado.
+     *
+     * @param limite O instante de corte.
+     * @return A quantidade de registros apagados.
+     */
+    @Modifying
+    @Query("delete from RegistroAlteracao r where r.criadoEm < :limite")
+    int apagarAnterioresA(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,20 @@
+package com.jefferson.geradorhorarios.repository;
+
+import com.jefferson.geradorhorarios.model.RegistroQuarentena;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RegistroQuarentenaRepository extends JpaRepository<RegistroQuarentena, Long> {
+
+    /**
+     * Busca o registro em quarentena de uma aula ou disponibilidade removida na migração.
+     *
+     * @param origem     A tabela de origem do registro.
+     * @param registroId O 'ID' original do registro.
+     * @return O registro em quarentena, se houver.
+     */
+    Optional<RegistroQuarentena> findByOrigemAndRegistroId(RegistroQuarentena.Origem origem, Long registroId);
+}
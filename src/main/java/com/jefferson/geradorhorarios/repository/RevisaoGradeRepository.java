@@ -0,0 +1,9 @@
+package com.jefferson.geradorhorarios.repository;
+
+import com.jefferson.geradorhorarios.model.RevisaoGrade;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RevisaoGradeRepository extends JpaRepository<RevisaoGrade, String> {
+}
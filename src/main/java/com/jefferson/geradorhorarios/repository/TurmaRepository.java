@@ -2,8 +2,22 @@ package com.jefferson.geradorhorarios.repository;
 
 import com.jefferson.geradorhorarios.model.Turma;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TurmaRepository extends JpaRepository<Turma, Long> {
+
+    /**
+     * Trava as linhas das turmas informadas até o fim da transação (SELECT ... FOR UPDATE), em ordem de 'ID'.
+     *
+     * @param ids Os 'IDs' das turmas.
+     * @return Os 'IDs' travados.
+     */
+    @Query(value = "select id from turma where id in (:ids) order by id for update", nativeQuery = true)
+    List<Long> travarPorIds(@Param("ids") Collection<Long> ids);
 }
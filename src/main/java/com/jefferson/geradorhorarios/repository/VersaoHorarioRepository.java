@@ -0,0 +1,48 @@
+package com.jefferson.geradorhorarios.repository;
+
+import com.jefferson.geradorhorarios.model.VersaoHorario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface VersaoHorarioRepository extends JpaRepository<VersaoHorario, Long> {
+
+    /**
+     * Busca uma versão e todos os seus ancestrais numa única consulta recursiva.
+     *
+     * @param id O 'ID' da versão.
+     * @return A versão e os ancestrais, da própria versão até a raiz; vazia se a versão não existir.
+     */
+    @Query(value = """
+            with recursive cadeia (id, versao_pai_id) as (
+                select id, versao_pai_id from versao_horario where id = :id
+                union all
+                select v.id, v.versao_pai_id from versao_horario v join cadeia c on v.id = c.versao_pai_id
+            )
+            select v.* from versao_horario v join cadeia c on v.id = c.id
+            order by v.profundidade desc
+            """, nativeQuery = true)
+    List<VersaoHorario> buscarAncestrais(@Param("id") Long id);
+
+    /**
+     * Busca uma versão e os seus ancestrais até o checkpoint mais próximo (inclusive) numa única consulta recursiva.
+     *
+     * @param id O 'ID' da versão.
+     * @return As versões, da própria versão até o checkpoint; vazia se a versão não existir.
+     */
+    @Query(value = """
+            with recursive cadeia (id, proxima_id) as (
+                select id, case when checkpoint then null else versao_pai_id end from versao_horario where id = :id
+                union all
+                select v.id, case when v.checkpoint then null else v.versao_pai_id end
+                from versao_horario v join cadeia c on v.id = c.proxima_id
+            )
+            select v.* from versao_horario v join cadeia c on v.id = c.id
+            order by v.profundidade desc
+            """, nativeQuery = true)
+    List<VersaoHorario> buscarCadeiaAteOCheckpoint(@Param("id") Long id);
+}
@@ -1,36 +1,155 @@
 package com.jefferson.geradorhorarios.service;
 
+import com.jefferson.geradorhorarios.dto.AulaResumo;
+import com.jefferson.geradorhorarios.dto.PaginaKeyset;
+import com.jefferson.geradorhorarios.dto.PosicaoAula;
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
+import com.jefferson.geradorhorarios.exception.BusinessRuleException;
 import com.jefferson.geradorhorarios.exception.ResourceNotFoundException;
 import com.jefferson.geradorhorarios.model.Aula;
 import com.jefferson.geradorhorarios.repository.AulaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 
 @Service // Indica que esta classe é um componente de serviço do Spring
 public class AulaService {
 
+    private static final int TENTATIVAS_DE_TRAVA = 3;
+
     private final AulaRepository aulaRepository; // Injeção de dependência do repositório
+    private final TravaHorarioService travaHorarioService;
+    private final GradeHorariaService gradeHorariaService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired // Anotação para injeção de dependência
-    public AulaService(AulaRepository aulaRepository) {
+    public AulaService(AulaRepository aulaRepository, TravaHorarioService travaHorarioService,
+                       GradeHorariaService gradeHorariaService, ApplicationEventPublisher eventPublisher) {
         this.aulaRepository = aulaRepository;
+        this.travaHorarioService = travaHorarioService;
+        this.gradeHorariaService = gradeHorariaService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Salva uma nova aula ou atualiza uma aula existente.
+     * A escrita trava apenas as listras (professor, dia) e (turma, dia) envolvidas, incluindo as do estado
+     * persistido quando a aula é movida, e as linhas do professor e da turma no banco (ver {@link TravaHorarioService}),
+     * e verifica choques de horário antes de salvar.
      *
      * @param aula O objeto Aula a ser salvo.
      * @return A aula salva/atualizada.
+     * @throws BusinessRuleException     Se a aula não informar o professor, a turma ou a disciplina,
+     *                                   não estiver alinhada à grade ou chocar com outra aula do professor ou da turma.
+     * @throws ResourceNotFoundException Se a aula informada para atualização não existir.
      */
+    @Transactional
     public Aula salvarAula(Aula aula) {
-        // Aqui, futuramente, poderíamos adicionar validações de negócio
-        // antes de salvar a aula, como verificar choques de horário,
-        // disponibilidade do professor, etc.
-        return aulaRepository.save(aula);
+        if (aula.getProfessor() == null || aula.getProfessor().getId() == null) {
+            throw new BusinessRuleException("A aula deve informar o professor.");
+        }
+        if (aula.getTurma() == null || aula.getTurma().getId() == null) {
+            throw new BusinessRuleException("A aula deve informar a turma.");
+        }
+        if (aula.getDisciplina() == null || aula.getDisciplina().getId() == null) {
+            throw new BusinessRuleException("A aula deve informar a disciplina.");
+        }
+        gradeHorariaService.alinharAula(aula);
+        PosicaoAula nova = PosicaoAula.de(aula);
+        return escreverComTrava(aula.getId(), nova, anterior -> {
+            verificarChoques(aula);
+            Aula salva = aulaRepository.save(aula);
+            publicarAlteracao(nova);
+            if (anterior != null && !anterior.equals(nova)) {
+                publicarAlteracao(anterior);
+            }
+            return salva;
+        });
+    }
+
+    /**
+     * Executa uma escrita de aula com as listras da posição nova e da posição persistida travadas.
+     * A posição persistida é lida como IDs (o merge do save sobrescreveria a entidade gerenciada) e relida depois
+     * de travar: se outra escrita moveu a aula nesse meio tempo, as listras travadas não são as certas,
+     * e a trava é refeita com a posição atual.
+     *
+     * @param aulaId  O 'ID' da aula persistida, ou null para uma aula nova.
+     * @param nova    A posição depois da escrita, ou null para uma remoção.
+     * @param escrita A escrita, que recebe a posição persistida confirmada (null para uma aula nova).
+     * @return O resultado da escrita.
+     */
+    private <T> T escreverComTrava(Long aulaId, PosicaoAula nova, Function<PosicaoAula, T> escrita) {
+        PosicaoAula anterior = aulaId == null ? null : buscarPosicao(aulaId);
+        for (int tentativa = 1; ; tentativa++) {
+            List<PosicaoAula> posicoes = new ArrayList<>(2);
+            if (nova != null) {
+                posicoes.add(nova);
+            }
+            if (anterior != null) {
+                posicoes.add(anterior);
+            }
+            TravaHorarioService.Trava trava = travaHorarioService.travar(posicoes);
+            PosicaoAula confirmada;
+            try {
+                confirmada = aulaId == null ? null : buscarPosicao(aulaId);
+            } catch (RuntimeException e) {
+                trava.desistir();
+                throw e;
+            }
+            if (Objects.equals(confirmada, anterior)) {
+                try (trava) {
+                    return escrita.apply(anterior);
+                }
+            }
+            trava.desistir();
+            if (tentativa == TENTATIVAS_DE_TRAVA) {
+                throw new BusinessRuleException("A aula está sendo editada por outro usuário. Tente novamente.");
+            }
+            anterior = confirmada;
+        }
+    }
+
+    private PosicaoAula buscarPosicao(Long aulaId) {
+        return aulaRepository.buscarPosicao(aulaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Aula não encontrada com ID: " + aulaId));
+    }
+
+    /**
+     * Publica a alteração das grades da turma e do professor de uma posição de aula.
+     *
+     * @param posicao A posição alterada (antes ou depois da escrita).
+     */
+    private void publicarAlteracao(PosicaoAula posicao) {
+        eventPublisher.publishEvent(GradeAlteradaEvent.turma(posicao.turmaId()));
+        eventPublisher.publishEvent(GradeAlteradaEvent.professor(posicao.professorId()));
+    }
+
+    /**
+     * Verifica se a aula choca com outra aula do mesmo professor ou da mesma turma.
+     * Deve ser chamado com as listras da aula travadas, senão duas escritas concorrentes podem passar juntas.
+     *
+     * @param aula A aula a ser verificada.
+     * @throws BusinessRuleException Se houver choque de horário.
+     */
+    private void verificarChoques(Aula aula) {
+        if (aulaRepository.existeChoqueDoProfessor(aula.getProfessor().getId(), aula.getDiaSemana(),
+                aula.getPeriodoInicio(), aula.getPeriodoFim(), aula.getId())) {
+            throw new BusinessRuleException("O professor já possui aula em " + aula.getDiaSemana()
+                    + " entre " + aula.getHorarioInicio() + " e " + aula.getHorarioFim() + ".");
+        }
+        if (aulaRepository.existeChoqueDaTurma(aula.getTurma().getId(), aula.getDiaSemana(),
+                aula.getPeriodoInicio(), aula.getPeriodoFim(), aula.getId())) {
+            throw new BusinessRuleException("A turma já possui aula em " + aula.getDiaSemana()
+                    + " entre " + aula.getHorarioInicio() + " e " + aula.getHorarioFim() + ".");
+        }
     }
 
     /**
@@ -49,22 +168,44 @@ public class AulaService {
      * Lista todas as aulas.
      *
      * @return Uma lista de todas as aulas.
+     * @deprecated Carrega a tabela inteira em memória. Use {@link #listarAulas(DayOfWeek, Long, Long, Long, int)}.
      */
+    @Deprecated
+    @Transactional(readOnly = true)
     public List<Aula> listarTodasAulas() {
         return aulaRepository.findAll();
     }
 
+    /**
+     * Lista as aulas paginadas por chave (keyset), com filtros opcionais aplicados no banco.
+     *
+     * @param diaSemana   Filtro opcional pelo dia da semana.
+     * @param turmaId     Filtro opcional pelo 'ID' da turma.
+     * @param professorId Filtro opcional pelo 'ID' do professor.
+     * @param cursor      O cursor devolvido pela página anterior, ou null para a primeira página.
+     * @param limite      O tamanho da página.
+     * @return A página de aulas projetadas em {@link AulaResumo}.
+     */
+    @Transactional(readOnly = true)
+    public PaginaKeyset<AulaResumo> listarAulas(DayOfWeek diaSemana, Long turmaId, Long professorId, Long cursor, int limite) {
+        List<AulaResumo> linhas = aulaRepository.buscarPagina(PaginaKeyset.cursorDeBusca(cursor), diaSemana,
+                turmaId, professorId, PaginaKeyset.limiteDeBusca(limite));
+        return PaginaKeyset.de(linhas, limite, AulaResumo::id);
+    }
+
     /**
      * Deleta uma aula pelo 'ID'. Lança ResourceNotFoundException se a aula não existir.
      *
      * @param id O 'ID' da aula a ser deletada.
      * @throws ResourceNotFoundException Se a aula não for encontrada.
      */
+    @Transactional
     public void deletarAula(Long id) {
-        if (!aulaRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Aula não encontrada com ID: " + id);
-        }
-        aulaRepository.deleteById(id);
+        escreverComTrava(id, null, anterior -> {
+            aulaRepository.deleteById(id);
+            publicarAlteracao(anterior);
+            return null;
+        });
     }
 
     /**
@@ -74,6 +215,7 @@ public class AulaService {
      * @param professorId O ID do professor.
      * @return Uma lista de aulas do professor.
      */
+    @Transactional(readOnly = true)
     public List<Aula> buscarAulasPorProfessor(Long professorId) {
         return aulaRepository.findByProfessorId(professorId);
     }
@@ -85,6 +227,7 @@ public class AulaService {
      * @param turmaId O 'ID' da turma.
      * @return Uma lista de aulas da turma.
      */
+    @Transactional(readOnly = true)
     public List<Aula> buscarAulasPorTurma(Long turmaId) {
         return aulaRepository.findByTurmaId(turmaId);
     }
@@ -92,19 +235,18 @@ public class AulaService {
     /**
      * Busca aulas por dia da semana e que ocorrem em um determinado intervalo de tempo.
      * Útil para verificar choques de horário ou visualizar horários de um período.
-     * Para isso, precisamos adicionar um método no AulaRepository.
+     * O intervalo é convertido nos períodos da grade que ele atinge, e a busca compara faixas de períodos.
      *
      * @param diaSemana     O dia da semana.
      * @param horarioInicio O horário de início do intervalo.
      * @param horarioFim    O horário de fim do intervalo.
      * @return Uma lista de aulas encaixadas nos critérios.
      */
+    @Transactional(readOnly = true)
     public List<Aula> buscarAulasPorDiaEHorario(DayOfWeek diaSemana, LocalTime horarioInicio, LocalTime horarioFim) {
-        return aulaRepository.findByDiaSemanaAndHorarioInicioLessThanEqualAndHorarioFimGreaterThanEqual(
-                diaSemana, horarioFim, horarioInicio);
-        // O método findByDiaSemanaAndHorarioInicioLessThanEqualAndHorarioFimGreaterThanEqual
-        // verifica se a aula começa antes ou no horário final do intervalo E termina depois ou no horário inicial do intervalo.
-        // Isso captura aulas que se sobrepõem ao intervalo.
+        int[] faixa = gradeHorariaService.faixaQueCobre(horarioInicio, horarioFim);
+        return faixa == null ? List.of()
+                : aulaRepository.findByDiaSemanaAndPeriodoInicioLessThanAndPeriodoFimGreaterThan(diaSemana, faixa[1], faixa[0]);
     }
 
     /**
@@ -117,9 +259,12 @@ public class AulaService {
      * @param horarioFim    O horário de fim da aula a ser verificada.
      * @return Uma lista de aulas existentes para o professor naquele dia e horário.
      */
+    @Transactional(readOnly = true)
     public List<Aula> buscarAulasExistentesDoProfessor(Long professorId, DayOfWeek diaSemana, LocalTime horarioInicio, LocalTime horarioFim) {
-        return aulaRepository.findByProfessorIdAndDiaSemanaAndHorarioInicioLessThanEqualAndHorarioFimGreaterThanEqual(
-                professorId, diaSemana, horarioFim, horarioInicio);
+        int[] faixa = gradeHorariaService.faixaQueCobre(horarioInicio, horarioFim);
+        return faixa == null ? List.of()
+                : aulaRepository.findByProfessorIdAndDiaSemanaAndPeriodoInicioLessThanAndPeriodoFimGreaterThan(
+                professorId, diaSemana, faixa[1], faixa[0]);
     }
 
     /**
@@ -132,13 +277,15 @@ public class AulaService {
      * @param horarioFim    O horário de fim da aula a ser verificada.
      * @return Uma lista de aulas existentes para a turma naquele dia e horário.
      */
+    @Transactional(readOnly = true)
     public List<Aula> buscarAulasExistentesDaTurma(Long turmaId, DayOfWeek diaSemana, LocalTime horarioInicio, LocalTime horarioFim) {
-        return aulaRepository.findByTurmaIdAndDiaSemanaAndHorarioInicioLessThanEqualAndHorarioFimGreaterThanEqual(
-                turmaId, diaSemana, horarioFim, horarioInicio);
+        int[] faixa = gradeHorariaService.faixaQueCobre(horarioInicio, horarioFim);
+        return faixa == null ? List.of()
+                : aulaRepository.findByTurmaIdAndDiaSemanaAndPeriodoInicioLessThanAndPeriodoFimGreaterThan(
+                turmaId, diaSemana, faixa[1], faixa[0]);
     }
 
     // Métodos para o algoritmo de geração de horários serão adicionados aqui futuramente.
     // Por exemplo:
     // public List<Aula> gerarHorarios() { ... }
-    // public boolean verificarChoque(Aula novaAula) { ... }
 }
@@ -1,16 +1,21 @@
 package com.jefferson.geradorhorarios.service;
 
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
 import com.jefferson.geradorhorarios.exception.ResourceNotFoundException;
 import com.jefferson.geradorhorarios.model.Disciplina;
 import com.jefferson.geradorhorarios.repository.DisciplinaRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class DisciplinaService {
     private final DisciplinaRepository disciplinaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DisciplinaService(DisciplinaRepository disciplinaRepository) {
+    public DisciplinaService(DisciplinaRepository disciplinaRepository, ApplicationEventPublisher eventPublisher) {
         this.disciplinaRepository = disciplinaRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -19,8 +24,12 @@ public class DisciplinaService {
      * @param disciplina O objeto Disciplina a ser salvo.
      * @return A disciplina salva/atualizada.
      */
+    @Transactional
     public Disciplina salvarDisciplina(Disciplina disciplina) {
-        return disciplinaRepository.save(disciplina);
+        Disciplina salva = disciplinaRepository.save(disciplina);
+        // O nome da disciplina aparece nas grades de todas as turmas e professores que a usam
+        eventPublisher.publishEvent(GradeAlteradaEvent.geral());
+        return salva;
     }
 
     /**
@@ -39,6 +48,7 @@ public class DisciplinaService {
      *
      * @return Uma lista de todas as disciplinas.
      */
+    @Transactional(readOnly = true)
     public Iterable<Disciplina> listarTodasDisciplinas() {
         return disciplinaRepository.findAll();
     }
@@ -48,11 +58,13 @@ public class DisciplinaService {
      *
      * @param id O ID da disciplina a ser deletada.
      */
+    @Transactional
     public void deletarDisciplina(Long id) {
         if (!disciplinaRepository.existsById(id)) {
             throw new ResourceNotFoundException("Disciplina não encontrada com ID: " + id);
         }
         disciplinaRepository.deleteById(id);
+        eventPublisher.publishEvent(GradeAlteradaEvent.geral());
     }
 
     /**
@@ -62,11 +74,14 @@ public class DisciplinaService {
      * @param disciplina O objeto Disciplina com os novos dados.
      * @return A disciplina atualizada.
      */
+    @Transactional
     public Disciplina atualizarDisciplina(Long id, Disciplina disciplina) {
         if (!disciplinaRepository.existsById(id)) {
             throw new ResourceNotFoundException("Disciplina não encontrada com ID: " + id);
         }
         disciplina.setId(id); // Certifica-se de que o ID está definido para a atualização
-        return disciplinaRepository.save(disciplina);
+        Disciplina salva = disciplinaRepository.save(disciplina);
+        eventPublisher.publishEvent(GradeAlteradaEvent.geral());
+        return salva;
     }
 }
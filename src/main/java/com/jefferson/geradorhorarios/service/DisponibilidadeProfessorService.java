@@ -1,16 +1,28 @@
 package com.jefferson.geradorhorarios.service;
 
+import com.jefferson.geradorhorarios.dto.DisponibilidadeResumo;
+import com.jefferson.geradorhorarios.dto.PaginaKeyset;
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
 import com.jefferson.geradorhorarios.exception.ResourceNotFoundException;
 import com.jefferson.geradorhorarios.model.DisponibilidadeProfessor;
+import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
 import com.jefferson.geradorhorarios.repository.DisponibilidadeProfessorRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.util.List;
 
 @Service
 public class DisponibilidadeProfessorService {
     private final DisponibilidadeProfessorRepository disponibilidadeProfessorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DisponibilidadeProfessorService(DisponibilidadeProfessorRepository disponibilidadeProfessorRepository) {
+    public DisponibilidadeProfessorService(DisponibilidadeProfessorRepository disponibilidadeProfessorRepository,
+                                           ApplicationEventPublisher eventPublisher) {
         this.disponibilidadeProfessorRepository = disponibilidadeProfessorRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -19,9 +31,12 @@ public class DisponibilidadeProfessorService {
      * @param disponibilidade O objeto DisponibilidadeProfessor a ser salvo.
      * @return A disponibilidade salva/atualizada.
      */
+    @Transactional
     public DisponibilidadeProfessor salvarDisponibilidade(DisponibilidadeProfessor disponibilidade) {
         // Aqui, você pode adicionar validações de negócio, se necessário
-        return disponibilidadeProfessorRepository.save(disponibilidade);
+        DisponibilidadeProfessor salva = disponibilidadeProfessorRepository.save(disponibilidade);
+        publicarAlteracao(salva);
+        return salva;
     }
 
     /**
@@ -39,21 +54,43 @@ public class DisponibilidadeProfessorService {
      * Lista todas as disponibilidades de professores.
      *
      * @return Uma lista de todas as disponibilidades.
+     * @deprecated Carrega a tabela inteira em memória.
+     * Use {@link #listarDisponibilidades(Long, DayOfWeek, TipoDisponibilidade, Long, int)}.
      */
-    public Iterable<DisponibilidadeProfessor> listarTodasDisponibilidades() {
+    @Deprecated
+    @Transactional(readOnly = true)
+    public List<DisponibilidadeProfessor> listarTodasDisponibilidades() {
         return disponibilidadeProfessorRepository.findAll();
     }
 
+    /**
+     * Lista as disponibilidades paginadas por chave (keyset), com filtros opcionais aplicados no banco.
+     *
+     * @param professorId Filtro opcional pelo ID do professor.
+     * @param diaSemana   Filtro opcional pelo dia da semana.
+     * @param tipo        Filtro opcional pelo tipo de disponibilidade.
+     * @param cursor      O cursor devolvido pela página anterior, ou null para a primeira página.
+     * @param limite      O tamanho da página.
+     * @return A página de disponibilidades projetadas em {@link DisponibilidadeResumo}.
+     */
+    @Transactional(readOnly = true)
+    public PaginaKeyset<DisponibilidadeResumo> listarDisponibilidades(Long professorId, DayOfWeek diaSemana,
+                                                                      TipoDisponibilidade tipo, Long cursor, int limite) {
+        List<DisponibilidadeResumo> linhas = disponibilidadeProfessorRepository.buscarPagina(
+                PaginaKeyset.cursorDeBusca(cursor), professorId, diaSemana, tipo, PaginaKeyset.limiteDeBusca(limite));
+        return PaginaKeyset.de(linhas, limite, DisponibilidadeResumo::id);
+    }
+
     /**
      * Deleta uma disponibilidade de professor pelo ID. Lança ResourceNotFoundException se a disponibilidade não existir.
      *
      * @param id O ID da disponibilidade a ser deletada.
      */
+    @Transactional
     public void deletarDisponibilidade(Long id) {
-        if (!disponibilidadeProfessorRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Disponibilidade não encontrada com ID: " + id);
-        }
+        DisponibilidadeProfessor disponibilidade = buscarDisponibilidadePorId(id);
         disponibilidadeProfessorRepository.deleteById(id);
+        publicarAlteracao(disponibilidade);
     }
 
     /**
@@ -62,11 +99,20 @@ public class DisponibilidadeProfessorService {
      * @param disponibilidade O objeto DisponibilidadeProfessor a ser atualizado.
      * @return A disponibilidade atualizada.
      */
+    @Transactional
     public DisponibilidadeProfessor atualizarDisponibilidade(DisponibilidadeProfessor disponibilidade) {
         if (!disponibilidadeProfessorRepository.existsById(disponibilidade.getId())) {
             throw new ResourceNotFoundException("Disponibilidade não encontrada com ID: " + disponibilidade.getId());
         }
-        return disponibilidadeProfessorRepository.save(disponibilidade);
+        DisponibilidadeProfessor salva = disponibilidadeProfessorRepository.save(disponibilidade);
+        publicarAlteracao(salva);
+        return salva;
+    }
+
+    private void publicarAlteracao(DisponibilidadeProfessor disponibilidade) {
+        if (disponibilidade.getProfessor() != null) {
+            eventPublisher.publishEvent(GradeAlteradaEvent.professor(disponibilidade.getProfessor().getId()));
+        }
     }
 
 }
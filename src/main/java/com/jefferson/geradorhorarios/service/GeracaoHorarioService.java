@@ -0,0 +1,54 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.dto.VersaoGerada;
+import com.jefferson.geradorhorarios.exception.ResourceNotFoundException;
+import com.jefferson.geradorhorarios.gerador.GeradorHorarios;
+import com.jefferson.geradorhorarios.gerador.ProblemaHorario;
+import com.jefferson.geradorhorarios.gerador.SolucaoHorario;
+import com.jefferson.geradorhorarios.model.VersaoHorario;
+import org.springframework.stereotype.Service;
+
+/**
+ * Geração de horários a partir dos dados da aplicação.
+ * O banco é lido uma vez, sem entidades, para um {@link ProblemaHorario} (o mesmo formato usado pelo modo batch),
+ * que é exportado e processado fora da aplicação pelo {@link GeradorHorarios}, ou gerado aqui mesmo e gravado como
+ * versão candidata. O resultado não é gravado direto na grade: o gerador supõe que toda turma cursa todas as
+ * disciplinas, e as aulas só entram na grade pelo {@link AulaService}, com as travas e a verificação de choques.
+ */
+@Service
+public class GeracaoHorarioService {
+
+    private final SnapshotProblemaService snapshotProblemaService;
+    private final VersaoHorarioService versaoHorarioService;
+    private final GeradorHorarios geradorHorarios = new GeradorHorarios();
+
+    public GeracaoHorarioService(SnapshotProblemaService snapshotProblemaService,
+                                 VersaoHorarioService versaoHorarioService) {
+        this.snapshotProblemaService = snapshotProblemaService;
+        this.versaoHorarioService = versaoHorarioService;
+    }
+
+    /**
+     * Monta o problema de horários com o estado atual do banco (ver {@link SnapshotProblemaService}).
+     *
+     * @return O problema, pronto para o gerador ou para exportação.
+     */
+    public ProblemaHorario carregarProblema() {
+        return snapshotProblemaService.carregar();
+    }
+
+    /**
+     * Gera uma grade candidata a partir do estado atual do banco e a grava como versão, sem tocar na tabela de aulas.
+     * A candidata pode então ser comparada com outras versões (ver {@link VersaoHorarioService#diff(Long, Long)}).
+     *
+     * @param versaoPaiId O 'ID' da versão pai, ou null para iniciar um novo histórico.
+     * @param descricao   Descrição opcional da versão.
+     * @return A versão criada, com o resumo da geração.
+     * @throws ResourceNotFoundException Se a versão pai não for encontrada.
+     */
+    public VersaoGerada gerarVersao(Long versaoPaiId, String descricao) {
+        SolucaoHorario solucao = geradorHorarios.gerar(carregarProblema());
+        VersaoHorario versao = versaoHorarioService.criarVersao(versaoPaiId, solucao.alocacoes(), descricao);
+        return new VersaoGerada(versao, solucao.aulasGeradas(), solucao.pendencias());
+    }
+}
@@ -0,0 +1,158 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.config.GradeHorariaProperties;
+import com.jefferson.geradorhorarios.dto.Periodo;
+import com.jefferson.geradorhorarios.exception.BusinessRuleException;
+import com.jefferson.geradorhorarios.gerador.FaixasDePeriodos;
+import com.jefferson.geradorhorarios.model.Aula;
+import com.jefferson.geradorhorarios.model.DisponibilidadeProfessor;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grade horária da escola: os dias letivos e os períodos de aula de cada dia.
+ * Aulas e disponibilidades são guardadas como faixas de índices de período [periodoInicio, periodoFim),
+ * e os períodos de um dia cabem num long, onde o bit i representa o período de índice i (ver {@link FaixasDePeriodos}).
+ * Assim, choques e disponibilidades são comparações de inteiros e operações bit a bit, e não aritmética de horários.
+ */
+@Service
+public class GradeHorariaService {
+
+    private final List<DayOfWeek> dias;
+    private final List<Periodo> periodos;
+    private final long mascaraCompleta;
+    private final List<LocalTime> inicios;
+    private final List<LocalTime> fins;
+
+    public GradeHorariaService(GradeHorariaProperties properties) {
+        this.dias = List.copyOf(properties.getDias());
+        this.periodos = lerPeriodos(properties.getPeriodos());
+        this.mascaraCompleta = FaixasDePeriodos.mascara(0, periodos.size());
+        this.inicios = periodos.stream().map(Periodo::horarioInicio).toList();
+        this.fins = periodos.stream().map(Periodo::horarioFim).toList();
+    }
+
+    private static List<Periodo> lerPeriodos(List<String> definicoes) {
+        if (definicoes.isEmpty() || definicoes.size() > Long.SIZE) {
+            throw new IllegalStateException("A grade horária deve ter entre 1 e " + Long.SIZE + " períodos por dia.");
+        }
+        List<Periodo> periodos = new ArrayList<>(definicoes.size());
+        LocalTime fimAnterior = LocalTime.MIN;
+        for (String definicao : definicoes) {
+            String[] partes = definicao.trim().split("-");
+            if (partes.length != 2) {
+                throw new IllegalStateException("Período inválido na grade horária: " + definicao);
+            }
+            LocalTime inicio = LocalTime.parse(partes[0].trim());
+            LocalTime fim = LocalTime.parse(partes[1].trim());
+            if (!inicio.isBefore(fim) || inicio.isBefore(fimAnterior)) {
+                throw new IllegalStateException("Os períodos da grade horária devem ser crescentes e não sobrepostos: " + definicao);
+            }
+            periodos.add(new Periodo(periodos.size(), inicio, fim));
+            fimAnterior = fim;
+        }
+        return List.copyOf(periodos);
+    }
+
+    public List<DayOfWeek> dias() {
+        return dias;
+    }
+
+    public List<Periodo> periodos() {
+        return periodos;
+    }
+
+    /**
+     * Retorna a máscara com todos os períodos do dia.
+     */
+    public long mascaraCompleta() {
+        return mascaraCompleta;
+    }
+
+    /**
+     * Preenche a faixa de períodos da aula, que deve começar e terminar exatamente em limites de período,
+     * ocupar períodos consecutivos (sem atravessar um intervalo) e cair num dia letivo.
+     *
+     * @param aula A aula a ser alinhada.
+     * @throws BusinessRuleException Se a aula não estiver alinhada à grade horária.
+     */
+    public void alinharAula(Aula aula) {
+        int[] faixa = faixaAlinhada(aula.getDiaSemana(), aula.getHorarioInicio(), aula.getHorarioFim());
+        aula.setPeriodoInicio(faixa[0]);
+        aula.setPeriodoFim(faixa[1]);
+    }
+
+    private int[] faixaAlinhada(DayOfWeek dia, LocalTime horarioInicio, LocalTime horarioFim) {
+        if (dia == null || !dias.contains(dia)) {
+            throw new BusinessRuleException("O dia " + dia + " não é um dia letivo da grade horária.");
+        }
+        int[] faixa = FaixasDePeriodos.faixaAlinhada(inicios, fins, horarioInicio, horarioFim);
+        if (faixa == null) {
+            throw new BusinessRuleException("A aula de " + horarioInicio + " a " + horarioFim
+                    + " não coincide com períodos consecutivos da grade horária.");
+        }
+        return faixa;
+    }
+
+    /**
+     * Preenche a faixa de períodos da disponibilidade com todos os períodos que ela atinge.
+     * Disponibilidades não precisam estar alinhadas: uma restrição que cobre parte de um período bloqueia o período inteiro.
+     *
+     * @param disponibilidade A disponibilidade a ser ajustada.
+     * @throws BusinessRuleException Se a disponibilidade não atingir nenhum período da grade.
+     */
+    public void ajustarDisponibilidade(DisponibilidadeProfessor disponibilidade) {
+        int[] faixa = faixaQueCobre(disponibilidade.getHorarioInicio(), disponibilidade.getHorarioFim());
+        if (faixa == null) {
+            throw new BusinessRuleException("A disponibilidade de " + disponibilidade.getHorarioInicio() + " a "
+                    + disponibilidade.getHorarioFim() + " não atinge nenhum período da grade horária.");
+        }
+        disponibilidade.setPeriodoInicio(faixa[0]);
+        disponibilidade.setPeriodoFim(faixa[1]);
+    }
+
+    /**
+     * Calcula a faixa de períodos para onde uma aula desalinhada seria migrada: todos os períodos que ela atinge.
+     * Usado apenas na migração de aulas gravadas antes da grade horária; aulas novas desalinhadas são rejeitadas.
+     * A aula não é alterada, para que a migração possa verificar choques antes de encaixá-la.
+     *
+     * @param aula A aula a ser encaixada.
+     * @return {periodoInicio, periodoFim} da faixa alinhada.
+     * @throws BusinessRuleException Se a aula cair num dia não letivo, não atingir nenhum período ou atravessar um intervalo.
+     */
+    public int[] faixaDeEncaixe(Aula aula) {
+        int[] atingida = faixaQueCobre(aula.getHorarioInicio(), aula.getHorarioFim());
+        if (atingida == null) {
+            throw new BusinessRuleException("A aula de " + aula.getHorarioInicio() + " a " + aula.getHorarioFim()
+                    + " não atinge nenhum período da grade horária.");
+        }
+        return faixaAlinhada(aula.getDiaSemana(), periodos.get(atingida[0]).horarioInicio(),
+                periodos.get(atingida[1] - 1).horarioFim());
+    }
+
+    /**
+     * Encaixa a aula na faixa calculada por {@link #faixaDeEncaixe(Aula)}, ajustando os horários aos limites dos períodos.
+     *
+     * @param aula  A aula a ser encaixada.
+     * @param faixa A faixa de encaixe da aula.
+     */
+    public void encaixarAula(Aula aula, int[] faixa) {
+        aula.setHorarioInicio(periodos.get(faixa[0]).horarioInicio());
+        aula.setHorarioFim(periodos.get(faixa[1] - 1).horarioFim());
+        aula.setPeriodoInicio(faixa[0]);
+        aula.setPeriodoFim(faixa[1]);
+    }
+
+    /**
+     * Encontra todos os períodos atingidos pelo intervalo de horários, mesmo que só em parte.
+     *
+     * @return {periodoInicio, periodoFim}, ou null se o intervalo não atingir nenhum período.
+     */
+    public int[] faixaQueCobre(LocalTime horarioInicio, LocalTime horarioFim) {
+        return FaixasDePeriodos.faixaQueCobre(inicios, fins, horarioInicio, horarioFim);
+    }
+}
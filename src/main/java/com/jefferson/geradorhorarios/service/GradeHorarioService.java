@@ -0,0 +1,123 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.dto.AulaResumo;
+import com.jefferson.geradorhorarios.dto.DisponibilidadeResumo;
+import com.jefferson.geradorhorarios.dto.GradeProfessorResponse;
+import com.jefferson.geradorhorarios.dto.GradeTurmaResponse;
+import com.jefferson.geradorhorarios.exception.ResourceNotFoundException;
+import com.jefferson.geradorhorarios.model.Professor;
+import com.jefferson.geradorhorarios.model.Turma;
+import com.jefferson.geradorhorarios.repository.AulaRepository;
+import com.jefferson.geradorhorarios.repository.DisponibilidadeProfessorRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Monta as visões de grade de horários (por turma e por professor) usadas pela API de leitura.
+ */
+@Service
+public class GradeHorarioService {
+
+    private static final Comparator<AulaResumo> ORDEM_DAS_AULAS = Comparator
+            .comparing(AulaResumo::diaSemana)
+            .thenComparing(AulaResumo::horarioInicio)
+            .thenComparing(AulaResumo::id);
+
+    private static final Comparator<DisponibilidadeResumo> ORDEM_DAS_DISPONIBILIDADES = Comparator
+            .comparing(DisponibilidadeResumo::diaSemana)
+            .thenComparing(DisponibilidadeResumo::horarioInicio)
+            .thenComparing(DisponibilidadeResumo::id);
+
+    private final AulaRepository aulaRepository;
+    private final DisponibilidadeProfessorRepository disponibilidadeProfessorRepository;
+    private final TurmaService turmaService;
+    private final ProfessorService professorService;
+    private final RevisaoGradeService revisaoGradeService;
+
+    public GradeHorarioService(AulaRepository aulaRepository,
+                               DisponibilidadeProfessorRepository disponibilidadeProfessorRepository,
+                               TurmaService turmaService,
+                               ProfessorService professorService,
+                               RevisaoGradeService revisaoGradeService) {
+        this.aulaRepository = aulaRepository;
+        this.disponibilidadeProfessorRepository = disponibilidadeProfessorRepository;
+        this.turmaService = turmaService;
+        this.professorService = professorService;
+        this.revisaoGradeService = revisaoGradeService;
+    }
+
+    /**
+     * Monta a grade de uma turma.
+     *
+     * @param turmaId O 'ID' da turma.
+     * @return A grade da turma.
+     * @throws ResourceNotFoundException Se a turma não for encontrada.
+     */
+    public GradeTurmaResponse gradeDaTurma(Long turmaId) {
+        return gradeDaTurma(turmaId, etag -> false);
+    }
+
+    /**
+     * Monta a grade de uma turma, a menos que o cliente já tenha a revisão atual.
+     * A revisão gravada é lida antes dos dados, na mesma transação (ver {@link RevisaoGradeService#revisaoGravadaDaTurma(Long)}),
+     * e a existência da turma é verificada antes de comparar o ETag: uma turma inexistente é sempre 404.
+     *
+     * @param turmaId      O 'ID' da turma.
+     * @param naoModificada Compara o ETag atual com o do cliente (por exemplo, {@code WebRequest::checkNotModified}).
+     * @return A grade da turma, ou null se o cliente já tiver a revisão atual.
+     * @throws ResourceNotFoundException Se a turma não for encontrada.
+     */
+    @Transactional(readOnly = true)
+    public GradeTurmaResponse gradeDaTurma(Long turmaId, Predicate<String> naoModificada) {
+        String revisao = revisaoGradeService.revisaoGravadaDaTurma(turmaId);
+        Turma turma = turmaService.findById(turmaId);
+        if (naoModificada.test(RevisaoGradeService.etagDaTurma(turmaId, revisao))) {
+            return null;
+        }
+        List<AulaResumo> aulas = aulaRepository.buscarResumosPorTurma(turmaId).stream()
+                .sorted(ORDEM_DAS_AULAS)
+                .toList();
+        return new GradeTurmaResponse(turma.getId(), turma.getNome(), revisao, aulas);
+    }
+
+    /**
+     * Monta a grade de um professor, com suas aulas e disponibilidades.
+     *
+     * @param professorId O 'ID' do professor.
+     * @return A grade do professor.
+     * @throws ResourceNotFoundException Se o professor não for encontrado.
+     */
+    public GradeProfessorResponse gradeDoProfessor(Long professorId) {
+        return gradeDoProfessor(professorId, etag -> false);
+    }
+
+    /**
+     * Monta a grade de um professor, a menos que o cliente já tenha a revisão atual
+     * (ver {@link #gradeDaTurma(Long, Predicate)}).
+     *
+     * @param professorId   O 'ID' do professor.
+     * @param naoModificada Compara o ETag atual com o do cliente.
+     * @return A grade do professor, ou null se o cliente já tiver a revisão atual.
+     * @throws ResourceNotFoundException Se o professor não for encontrado.
+     */
+    @Transactional(readOnly = true)
+    public GradeProfessorResponse gradeDoProfessor(Long professorId, Predicate<String> naoModificada) {
+        String revisao = revisaoGradeService.revisaoGravadaDoProfessor(professorId);
+        Professor professor = professorService.buscarProfessorPorId(professorId);
+        if (naoModificada.test(RevisaoGradeService.etagDoProfessor(professorId, revisao))) {
+            return null;
+        }
+        List<AulaResumo> aulas = aulaRepository.buscarResumosPorProfessor(professorId).stream()
+                .sorted(ORDEM_DAS_AULAS)
+                .toList();
+        List<DisponibilidadeResumo> disponibilidades = disponibilidadeProfessorRepository
+                .buscarResumosPorProfessor(professorId).stream()
+                .sorted(ORDEM_DAS_DISPONIBILIDADES)
+                .toList();
+        return new GradeProfessorResponse(professor.getId(), professor.getNome(), revisao, aulas, disponibilidades);
+    }
+}
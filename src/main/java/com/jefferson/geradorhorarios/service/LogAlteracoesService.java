@@ -0,0 +1,223 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
+import com.jefferson.geradorhorarios.model.RegistroAlteracao;
+import com.jefferson.geradorhorarios.repository.RegistroAlteracaoRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Log de alterações compartilhado entre os nós da aplicação.
+ * Toda alteração local da grade grava um {@link RegistroAlteracao} na mesma transação da escrita, e cada nó
+ * acompanha o log por polling, republicando localmente como {@link GradeAlteradaEvent} remoto as alterações
+ * feitas pelos outros nós. Assim, os caches em memória são invalidados por turma ou por professor, sem recargas
+ * completas. No mesmo lote, as revisões gravadas dos ETags são incrementadas (ver {@link RevisaoGradeService}).
+ * <p>
+ * Os 'IDs' são alocados na inserção, mas as transações podem confirmar fora de ordem: um 'ID' menor pode aparecer
+ * depois de um maior. Por isso o cursor só avança sobre 'IDs' contíguos, e os 'IDs' que faltam (lacunas) são relidos
+ * a cada passada, qualquer que seja a demora da transação que os alocou. Uma lacuna só é dada como perdida
+ * (transação desfeita) quando sai da janela dos últimos {@code horarios.alteracoes.janela-lacunas} 'IDs' lidos:
+ * o critério é a quantidade de alterações confirmadas depois dela, e não o tempo de relógio, de modo que uma
+ * transação lenta num sistema ocioso não perde a sua invalidação.
+ */
+@Service
+public class LogAlteracoesService {
+
+    private static final Logger log = LoggerFactory.getLogger(LogAlteracoesService.class);
+    private static final int TAMANHO_DO_LOTE = 500;
+
+    private final RegistroAlteracaoRepository registroAlteracaoRepository;
+    private final RevisaoGradeService revisaoGradeService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String noId;
+    private final long janelaLacunas;
+    private final long retencaoHoras;
+
+    private long cursor; // Todos os 'IDs' até o cursor já foram processados ou dados como perdidos
+    private final NavigableSet<Long> processadosAposCursor = new TreeSet<>();
+
+    public LogAlteracoesService(RegistroAlteracaoRepository registroAlteracaoRepository,
+                                RevisaoGradeService revisaoGradeService,
+                                JdbcTemplate jdbcTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${horarios.no.id:}") String noId,
+                                @Value("${horarios.alteracoes.janela-lacunas:10000}") long janelaLacunas,
+                                @Value("${horarios.alteracoes.retencao-horas:24}") long retencaoHoras) {
+        this.registroAlteracaoRepository = registroAlteracaoRepository;
+        this.revisaoGradeService = revisaoGradeService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.noId = noId.isBlank() ? UUID.randomUUID().toString() : noId;
+        this.janelaLacunas = janelaLacunas;
+        this.retencaoHoras = retencaoHoras;
+    }
+
+    /**
+     * Começa a acompanhar o log a partir do fim: os caches de um nó recém-iniciado ainda estão vazios.
+     */
+    @PostConstruct
+    synchronized void iniciarCursor() {
+        cursor = registroAlteracaoRepository.buscarUltimoId();
+    }
+
+    public String noId() {
+        return noId;
+    }
+
+    /**
+     * Grava a alteração no log na mesma transação da escrita que a originou.
+     * As alterações de uma transação são acumuladas sem repetição e gravadas num único lote JDBC antes do commit,
+     * de modo que salvar uma aula custa um lote no log (e um nas revisões gravadas), e não um comando por evento.
+     * Fora de transação, grava imediatamente.
+     * O lote pertence à transação física: uma transação interna (REQUIRES_NEW) suspende o lote da externa e grava
+     * o seu próprio no seu commit. Eventos remotos não são gravados de novo.
+     *
+     * @param evento O evento de alteração da grade.
+     */
+    @EventListener
+    public void registrar(GradeAlteradaEvent evento) {
+        if (evento.remoto()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            gravar(List.of(evento));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<GradeAlteradaEvent> pendentes = (Set<GradeAlteradaEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pendentes == null) {
+            Set<GradeAlteradaEvent> daTransacao = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, daTransacao);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(LogAlteracoesService.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(LogAlteracoesService.this, daTransacao);
+                }
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    gravar(daTransacao);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LogAlteracoesService.this);
+                }
+            });
+            pendentes = daTransacao;
+        }
+        pendentes.add(evento);
+    }
+
+    /**
+     * Grava as alterações no log e incrementa as revisões gravadas dos seus escopos (ver {@link RevisaoGradeService}).
+     */
+    private void gravar(Collection<GradeAlteradaEvent> alteracoes) {
+        LocalDateTime agora = LocalDateTime.now();
+        jdbcTemplate.batchUpdate("insert into registro_alteracao (escopo, entidade_id, origem, criado_em) values (?, ?, ?, ?)",
+                alteracoes, TAMANHO_DO_LOTE, (ps, alteracao) -> {
+                    ps.setString(1, alteracao.escopo().name());
+                    ps.setObject(2, alteracao.id(), Types.BIGINT);
+                    ps.setString(3, noId);
+                    ps.setObject(4, agora);
+                });
+        revisaoGradeService.incrementarRevisoesGravadas(alteracoes);
+    }
+
+    /**
+     * Lê as alterações novas do log e republica localmente as feitas por outros nós.
+     * Os 'IDs' que faltam abaixo do maior já lido (lacunas) são relidos pontualmente, e a leitura dos novos continua
+     * a partir do maior 'ID' já lido: uma lacuna pendente não faz a mesma página ser relida a cada passada.
+     */
+    @Scheduled(fixedDelayString = "${horarios.alteracoes.intervalo-ms:1000}")
+    public synchronized void acompanhar() {
+        List<Long> faltando = idsFaltando();
+        if (!faltando.isEmpty()) {
+            processar(registroAlteracaoRepository.findByIdIn(faltando));
+        }
+        List<RegistroAlteracao> registros;
+        do {
+            long ultimoLido = processadosAposCursor.isEmpty() ? cursor : processadosAposCursor.last();
+            registros = registroAlteracaoRepository.findByIdGreaterThanOrderByIdAsc(ultimoLido, Limit.of(TAMANHO_DO_LOTE));
+            processar(registros);
+            avancarCursor();
+        } while (registros.size() == TAMANHO_DO_LOTE);
+    }
+
+    private void processar(List<RegistroAlteracao> registros) {
+        for (RegistroAlteracao registro : registros) {
+            if (!processadosAposCursor.add(registro.getId())) {
+                continue;
+            }
+            if (!noId.equals(registro.getOrigem())) {
+                eventPublisher.publishEvent(GradeAlteradaEvent.remoto(registro.getEscopo(), registro.getEntidadeId()));
+            }
+        }
+    }
+
+    /**
+     * Retorna os primeiros 'IDs' entre o cursor e o maior 'ID' já lido que ainda não apareceram no log.
+     */
+    private List<Long> idsFaltando() {
+        List<Long> faltando = new ArrayList<>();
+        long esperado = cursor + 1;
+        for (long lido : processadosAposCursor) {
+            for (; esperado < lido && faltando.size() < TAMANHO_DO_LOTE; esperado++) {
+                faltando.add(esperado);
+            }
+            if (faltando.size() == TAMANHO_DO_LOTE) {
+                break;
+            }
+            esperado = lido + 1;
+        }
+        return faltando;
+    }
+
+    /**
+     * Avança o cursor sobre os 'IDs' contíguos já processados. Uma lacuna é abandonada apenas quando fica mais que
+     * a janela atrás do maior 'ID' já lido; até lá, continua sendo relida.
+     */
+    private void avancarCursor() {
+        while (!processadosAposCursor.isEmpty()) {
+            long primeiro = processadosAposCursor.first();
+            if (primeiro != cursor + 1 && processadosAposCursor.last() - (cursor + 1) < janelaLacunas) {
+                break;
+            }
+            if (primeiro != cursor + 1) {
+                log.warn("Lacuna no log de alterações abandonada: {} a {}", cursor + 1, primeiro - 1);
+            }
+            cursor = primeiro;
+            processadosAposCursor.pollFirst();
+        }
+    }
+
+    /**
+     * Apaga os registros mais antigos que a retenção configurada. Pode rodar em qualquer nó.
+     */
+    @Scheduled(fixedDelayString = "${horarios.alteracoes.limpeza-ms:3600000}")
+    @Transactional
+    public void limpar() {
+        registroAlteracaoRepository.apagarAnterioresA(LocalDateTime.now().minusHours(retencaoHoras));
+    }
+}
@@ -0,0 +1,193 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.dto.IntervaloResumo;
+import com.jefferson.geradorhorarios.dto.Periodo;
+import com.jefferson.geradorhorarios.dto.ProfessorResumo;
+import com.jefferson.geradorhorarios.dto.SlotViavel;
+import com.jefferson.geradorhorarios.gerador.FaixasDePeriodos;
+import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
+import com.jefferson.geradorhorarios.repository.AulaRepository;
+import com.jefferson.geradorhorarios.repository.DisponibilidadeProfessorRepository;
+import com.jefferson.geradorhorarios.repository.ProfessorRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estruturas de ocupação em memória para o posicionamento manual de aulas.
+ * Cada professor e cada turma tem uma máscara de períodos ocupados por dia (um long por dia, ver {@link GradeHorariaService}),
+ * de modo que descobrir os horários viáveis é uma sequência de operações bit a bit, sem consultas por horário.
+ * As máscaras são carregadas sob demanda e marcadas com a revisão da grade lida antes da carga;
+ * quando a revisão muda (ver {@link RevisaoGradeService}), a máscara é recarregada na próxima consulta.
+ */
+@Service
+public class OcupacaoGradeService {
+
+    private static final List<TipoDisponibilidade> TIPOS_QUE_BLOQUEIAM = Arrays.stream(TipoDisponibilidade.values())
+            .filter(TipoDisponibilidade::bloqueiaAulas)
+            .toList();
+
+    private record Ocupacao(long revisao, long[] mascaras) {
+    }
+
+    private record Qualificados(long revisao, List<ProfessorResumo> professores) {
+    }
+
+    private final AulaRepository aulaRepository;
+    private final DisponibilidadeProfessorRepository disponibilidadeProfessorRepository;
+    private final ProfessorRepository professorRepository;
+    private final GradeHorariaService gradeHorariaService;
+    private final RevisaoGradeService revisaoGradeService;
+
+    private final Map<Long, Ocupacao> ocupacaoPorProfessor = new ConcurrentHashMap<>();
+    private final Map<Long, Ocupacao> ocupacaoPorTurma = new ConcurrentHashMap<>();
+    private final Map<Long, Qualificados> qualificadosPorDisciplina = new ConcurrentHashMap<>();
+
+    public OcupacaoGradeService(AulaRepository aulaRepository,
+                                DisponibilidadeProfessorRepository disponibilidadeProfessorRepository,
+                                ProfessorRepository professorRepository,
+                                GradeHorariaService gradeHorariaService,
+                                RevisaoGradeService revisaoGradeService) {
+        this.aulaRepository = aulaRepository;
+        this.disponibilidadeProfessorRepository = disponibilidadeProfessorRepository;
+        this.professorRepository = professorRepository;
+        this.gradeHorariaService = gradeHorariaService;
+        this.revisaoGradeService = revisaoGradeService;
+    }
+
+    /**
+     * Busca todos os horários (dia, período) em que a disciplina pode ser posicionada para a turma,
+     * com os professores habilitados na disciplina e livres em cada horário.
+     * Com as máscaras já carregadas, a resposta é calculada inteiramente em memória.
+     *
+     * @param turmaId      O 'ID' da turma.
+     * @param disciplinaId O 'ID' da disciplina.
+     * @return Os horários viáveis, em ordem de dia e período.
+     */
+    public List<SlotViavel> buscarSlotsViaveis(Long turmaId, Long disciplinaId) {
+        long[] ocupacaoDaTurma = ocupacaoDaTurma(turmaId);
+        List<ProfessorResumo> professores = qualificados(disciplinaId);
+        long[][] ocupacaoDosProfessores = ocupacaoDosProfessores(professores.stream().map(ProfessorResumo::id).toList());
+
+        List<Periodo> periodos = gradeHorariaService.periodos();
+        List<SlotViavel> slots = new ArrayList<>();
+        long[] livresPorProfessor = new long[professores.size()];
+        for (DayOfWeek dia : gradeHorariaService.dias()) {
+            int d = dia.ordinal();
+            long livresDaTurma = gradeHorariaService.mascaraCompleta() & ~ocupacaoDaTurma[d];
+            long comAlgumProfessor = 0L;
+            for (int i = 0; i < professores.size(); i++) {
+                livresPorProfessor[i] = livresDaTurma & ~ocupacaoDosProfessores[i][d];
+                comAlgumProfessor |= livresPorProfessor[i];
+            }
+            for (long bits = comAlgumProfessor; bits != 0; bits &= bits - 1) {
+                int indice = Long.numberOfTrailingZeros(bits);
+                long bit = 1L << indice;
+                List<ProfessorResumo> livres = new ArrayList<>();
+                for (int i = 0; i < professores.size(); i++) {
+                    if ((livresPorProfessor[i] & bit) != 0) {
+                        livres.add(professores.get(i));
+                    }
+                }
+                Periodo periodo = periodos.get(indice);
+                slots.add(new SlotViavel(dia, indice, periodo.horarioInicio(), periodo.horarioFim(), livres));
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Retorna as máscaras de períodos ocupados do professor (aulas e restrições que bloqueiam aulas), indexadas por dia.
+     *
+     * @param professorId O 'ID' do professor.
+     * @return Um long por {@link DayOfWeek#ordinal()}.
+     */
+    public long[] ocupacaoDoProfessor(Long professorId) {
+        return ocupacaoDosProfessores(List.of(professorId))[0];
+    }
+
+    /**
+     * Retorna as máscaras de períodos ocupados de vários professores.
+     * Os professores sem máscara válida no cache são carregados juntos, com uma consulta para as aulas e outra para
+     * as disponibilidades, qualquer que seja a quantidade de professores.
+     *
+     * @param professorIds Os 'IDs' dos professores.
+     * @return As máscaras de cada professor, na ordem dos 'IDs' (um long por {@link DayOfWeek#ordinal()}).
+     */
+    public long[][] ocupacaoDosProfessores(List<Long> professorIds) {
+        long[][] resultado = new long[professorIds.size()][];
+        Map<Long, Long> revisoesACarregar = new LinkedHashMap<>();
+        for (int i = 0; i < professorIds.size(); i++) {
+            Long professorId = professorIds.get(i);
+            // A revisão é lida antes da consulta: uma escrita confirmada durante a carga deixa a entrada já desatualizada
+            long revisao = revisaoGradeService.revisaoDoProfessor(professorId);
+            Ocupacao atual = ocupacaoPorProfessor.get(professorId);
+            if (atual != null && atual.revisao() == revisao) {
+                resultado[i] = atual.mascaras();
+            } else {
+                revisoesACarregar.put(professorId, revisao);
+            }
+        }
+        if (revisoesACarregar.isEmpty()) {
+            return resultado;
+        }
+
+        Map<Long, long[]> carregadas = new HashMap<>();
+        revisoesACarregar.keySet().forEach(id -> carregadas.put(id, new long[DayOfWeek.values().length]));
+        marcar(carregadas, aulaRepository.buscarIntervalosPorProfessores(revisoesACarregar.keySet()));
+        marcar(carregadas, disponibilidadeProfessorRepository.buscarIntervalosPorProfessores(revisoesACarregar.keySet(),
+                TIPOS_QUE_BLOQUEIAM));
+        revisoesACarregar.forEach((id, revisao) -> ocupacaoPorProfessor.put(id, new Ocupacao(revisao, carregadas.get(id))));
+        for (int i = 0; i < professorIds.size(); i++) {
+            if (resultado[i] == null) {
+                resultado[i] = carregadas.get(professorIds.get(i));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Retorna as máscaras de períodos ocupados da turma, indexadas por dia.
+     *
+     * @param turmaId O 'ID' da turma.
+     * @return Um long por {@link DayOfWeek#ordinal()}.
+     */
+    public long[] ocupacaoDaTurma(Long turmaId) {
+        // A revisão é lida antes da consulta: uma escrita confirmada durante a carga deixa a entrada já desatualizada
+        long revisao = revisaoGradeService.revisaoDaTurma(turmaId);
+        Ocupacao atual = ocupacaoPorTurma.get(turmaId);
+        if (atual != null && atual.revisao() == revisao) {
+            return atual.mascaras();
+        }
+        long[] mascaras = new long[DayOfWeek.values().length];
+        marcar(Map.of(turmaId, mascaras), aulaRepository.buscarIntervalosPorTurma(turmaId));
+        ocupacaoPorTurma.put(turmaId, new Ocupacao(revisao, mascaras));
+        return mascaras;
+    }
+
+    /**
+     * Retorna os professores habilitados numa disciplina.
+     * A lista fica em cache por disciplina e só é recarregada quando as habilitações dela mudam.
+     *
+     * @param disciplinaId O 'ID' da disciplina.
+     * @return Os professores habilitados, em ordem de 'ID'.
+     */
+    public List<ProfessorResumo> qualificados(Long disciplinaId) {
+        long revisao = revisaoGradeService.revisaoDasQualificacoes(disciplinaId);
+        Qualificados atual = qualificadosPorDisciplina.get(disciplinaId);
+        if (atual == null || atual.revisao() != revisao) {
+            atual = new Qualificados(revisao, professorRepository.buscarQualificados(disciplinaId));
+            qualificadosPorDisciplina.put(disciplinaId, atual);
+        }
+        return atual.professores();
+    }
+
+    private void marcar(Map<Long, long[]> mascarasPorDono, List<IntervaloResumo> intervalos) {
+        for (IntervaloResumo intervalo : intervalos) {
+            long[] mascaras = mascarasPorDono.get(intervalo.donoId());
+            mascaras[intervalo.diaSemana().ordinal()] |= FaixasDePeriodos.mascara(intervalo.periodoInicio(), intervalo.periodoFim());
+        }
+    }
+}
@@ -1,21 +1,56 @@
 package com.jefferson.geradorhorarios.service;
 
+import com.jefferson.geradorhorarios.dto.PaginaKeyset;
+import com.jefferson.geradorhorarios.dto.ProfessorResumo;
+import com.jefferson.geradorhorarios.dto.QualificacaoRequest;
+import com.jefferson.geradorhorarios.dto.ResultadoQualificacao;
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
+import com.jefferson.geradorhorarios.exception.BusinessRuleException;
 import com.jefferson.geradorhorarios.exception.ResourceNotFoundException;
 import com.jefferson.geradorhorarios.model.Professor;
+import com.jefferson.geradorhorarios.repository.DisciplinaRepository;
 import com.jefferson.geradorhorarios.repository.ProfessorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.function.Function;
 
 @Service
 public class ProfessorService {
 
+    private static final int TAMANHO_LOTE = 500;
+    private static final int TENTATIVAS_DE_QUALIFICACAO = 3;
+
     private final ProfessorRepository professorRepository;
+    private final DisciplinaRepository disciplinaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private volatile String comandoDeQualificacao;
 
     @Autowired
-    public ProfessorService(ProfessorRepository professorRepository) {
+    public ProfessorService(ProfessorRepository professorRepository, DisciplinaRepository disciplinaRepository,
+                            JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager) {
         this.professorRepository = professorRepository;
+        this.disciplinaRepository = disciplinaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -25,6 +60,7 @@ public class ProfessorService {
      * @param professor O objeto Professor a ser salvo.
      * @return O professor salvo/atualizado.
      */
+    @Transactional
     public Professor salvarProfessor(Professor professor) {
         // Exemplo de validação de regra de negócio: verificar se o email já está em uso
         // if (professorRepository.findByEmail(professor.getEmail()).isPresent() && professor.getId() == null) {
@@ -32,7 +68,17 @@ public class ProfessorService {
         // }
         // Para isso, você precisaria adicionar `Optional<Professor> findByEmail(String email);` na ProfessorRepository
 
-        return professorRepository.save(professor);
+        // Nome, email e disciplinas aparecem nas listas de habilitados das disciplinas antigas e novas
+        Set<Long> disciplinaIds = professor.getId() != null
+                ? new HashSet<>(professorRepository.buscarIdsDasDisciplinas(professor.getId()))
+                : new HashSet<>();
+        Professor salvo = professorRepository.save(professor);
+        if (salvo.getDisciplinasLecionadas() != null) {
+            salvo.getDisciplinasLecionadas().forEach(disciplina -> disciplinaIds.add(disciplina.getId()));
+        }
+        eventPublisher.publishEvent(GradeAlteradaEvent.professor(salvo.getId()));
+        disciplinaIds.forEach(id -> eventPublisher.publishEvent(GradeAlteradaEvent.qualificacao(id)));
+        return salvo;
     }
 
     /**
@@ -51,21 +97,165 @@ public class ProfessorService {
      * Lista todos os professores.
      *
      * @return Uma lista de todos os professores.
+     * @deprecated Carrega a tabela inteira em memória. Use {@link #listarProfessores(Long, int)}.
      */
+    @Deprecated
+    @Transactional(readOnly = true)
     public List<Professor> listarTodosProfessores() {
         return professorRepository.findAll();
     }
 
+    /**
+     * Lista os professores paginados por chave (keyset), sem carregar as coleções LAZY.
+     *
+     * @param cursor O cursor devolvido pela página anterior, ou null para a primeira página.
+     * @param limite O tamanho da página.
+     * @return A página de professores projetados em {@link ProfessorResumo}.
+     */
+    @Transactional(readOnly = true)
+    public PaginaKeyset<ProfessorResumo> listarProfessores(Long cursor, int limite) {
+        List<ProfessorResumo> linhas = professorRepository.buscarPagina(PaginaKeyset.cursorDeBusca(cursor),
+                PaginaKeyset.limiteDeBusca(limite));
+        return PaginaKeyset.de(linhas, limite, ProfessorResumo::id);
+    }
+
     /**
      * Deleta um professor pelo ID. Lança ResourceNotFoundException se o professor não existir.
      *
      * @param id O ID do professor a ser deletado.
      * @throws ResourceNotFoundException Se o professor não for encontrado.
      */
+    @Transactional
     public void deletarProfessor(Long id) {
         if (!professorRepository.existsById(id)) { // Verifica se o professor existe antes de tentar deletar
             throw new ResourceNotFoundException("Professor não encontrado com ID: " + id);
         }
+        List<Long> disciplinaIds = professorRepository.buscarIdsDasDisciplinas(id);
         professorRepository.deleteById(id);
+        eventPublisher.publishEvent(GradeAlteradaEvent.professor(id));
+        disciplinaIds.forEach(disciplinaId -> eventPublisher.publishEvent(GradeAlteradaEvent.qualificacao(disciplinaId)));
+    }
+
+    /**
+     * Habilita professores em disciplinas em lote, gravando direto na tabela de junção professor_disciplina.
+     * Nenhuma das coleções ({@code Professor.disciplinasLecionadas} e {@code Disciplina.professores}) é carregada:
+     * os pares são gravados em lotes JDBC de comandos que ignoram os já existentes, inclusive os inseridos por
+     * outro lote concorrente ("insert ... on conflict do nothing" no PostgreSQL, "merge" nos demais bancos).
+     * Só as disciplinas que ganharam algum professor têm a lista de habilitados invalidada.
+     * Os pares são gravados em ordem de professor e disciplina, para que lotes concorrentes travem as linhas na mesma
+     * ordem; se o banco ainda assim desfizer a transação por deadlock, ela é refeita por inteiro (só quando é a
+     * transação mais externa: dentro de outra, o erro é repassado a quem a abriu).
+     * Entidades Professor já carregadas na transação corrente não enxergam as novas habilitações.
+     *
+     * @param qualificacoes Os pares (professor, disciplina); repetições são ignoradas.
+     * @return Quantos pares distintos foram enviados, quantos eram novos e de quantos o resultado é desconhecido.
+     * @throws BusinessRuleException     Se algum par vier incompleto.
+     * @throws ResourceNotFoundException Se algum professor ou disciplina não existir.
+     */
+    public ResultadoQualificacao qualificarEmLote(Collection<QualificacaoRequest> qualificacoes) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> gravarEmLote(qualificacoes));
+            } catch (PessimisticLockingFailureException e) {
+                if (tentativa == TENTATIVAS_DE_QUALIFICACAO || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private ResultadoQualificacao gravarEmLote(Collection<QualificacaoRequest> qualificacoes) {
+        Set<QualificacaoRequest> distintas = new LinkedHashSet<>(qualificacoes);
+        Set<Long> professorIds = new HashSet<>();
+        Set<Long> disciplinaIds = new HashSet<>();
+        for (QualificacaoRequest qualificacao : distintas) {
+            if (qualificacao == null || qualificacao.professorId() == null || qualificacao.disciplinaId() == null) {
+                throw new BusinessRuleException("Cada habilitação deve informar o professor e a disciplina.");
+            }
+            professorIds.add(qualificacao.professorId());
+            disciplinaIds.add(qualificacao.disciplinaId());
+        }
+        verificarExistentes(professorIds, professorRepository::buscarIdsExistentes, "Professor não encontrado com ID: ");
+        verificarExistentes(disciplinaIds, disciplinaRepository::buscarIdsExistentes, "Disciplina não encontrada com ID: ");
+
+        List<QualificacaoRequest> pares = new ArrayList<>(distintas);
+        pares.sort(Comparator.comparing(QualificacaoRequest::professorId).thenComparing(QualificacaoRequest::disciplinaId));
+        String comando = comandoDeQualificacao();
+        int inseridas = 0;
+        int indeterminadas = 0;
+        Set<Long> afetadas = new LinkedHashSet<>();
+        for (int inicio = 0; inicio < pares.size(); inicio += TAMANHO_LOTE) {
+            List<QualificacaoRequest> lote = pares.subList(inicio, Math.min(inicio + TAMANHO_LOTE, pares.size()));
+            int[] linhas;
+            boolean repetido = false;
+            try {
+                linhas = gravarQualificacoes(comando, lote);
+            } catch (DuplicateKeyException e) {
+                // Um lote concorrente confirmou o mesmo par entre a verificação e a inserção do merge.
+                // Os pares dele agora existem e são ignorados; os deste lote podem ter sido gravados na primeira tentativa.
+                linhas = gravarQualificacoes(comando, lote);
+                repetido = true;
+            }
+            for (int i = 0; i < lote.size(); i++) {
+                if (repetido || linhas[i] == Statement.SUCCESS_NO_INFO) {
+                    // O driver não informou a contagem: a lista de habilitados é invalidada por precaução
+                    indeterminadas++;
+                    afetadas.add(lote.get(i).disciplinaId());
+                } else if (linhas[i] > 0) {
+                    inseridas++;
+                    afetadas.add(lote.get(i).disciplinaId());
+                }
+            }
+        }
+        afetadas.forEach(id -> eventPublisher.publishEvent(GradeAlteradaEvent.qualificacao(id)));
+        return new ResultadoQualificacao(pares.size(), inseridas, indeterminadas);
+    }
+
+    private int[] gravarQualificacoes(String comando, List<QualificacaoRequest> lote) {
+        return jdbcTemplate.batchUpdate(comando, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, lote.get(i).professorId());
+                ps.setLong(2, lote.get(i).disciplinaId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lote.size();
+            }
+        });
+    }
+
+    /**
+     * Escolhe o comando de habilitação conforme o banco, na primeira vez em que é usado.
+     */
+    private String comandoDeQualificacao() {
+        String comando = comandoDeQualificacao;
+        if (comando == null) {
+            String banco = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            comando = "PostgreSQL".equals(banco)
+                    ? "insert into professor_disciplina (professor_id, disciplina_id) values (?, ?) on conflict do nothing"
+                    : """
+                    merge into professor_disciplina pd
+                    using (select cast(? as bigint) as professor_id, cast(? as bigint) as disciplina_id) novo
+                    on pd.professor_id = novo.professor_id and pd.disciplina_id = novo.disciplina_id
+                    when not matched then insert (professor_id, disciplina_id) values (novo.professor_id, novo.disciplina_id)
+                    """;
+            comandoDeQualificacao = comando;
+        }
+        return comando;
+    }
+
+    private static void verificarExistentes(Set<Long> ids, Function<Collection<Long>, List<Long>> busca,
+                                            String mensagem) {
+        List<Long> pendentes = new ArrayList<>(ids);
+        for (int inicio = 0; inicio < pendentes.size(); inicio += TAMANHO_LOTE) {
+            List<Long> lote = pendentes.subList(inicio, Math.min(inicio + TAMANHO_LOTE, pendentes.size()));
+            Set<Long> faltando = new TreeSet<>(lote);
+            busca.apply(lote).forEach(faltando::remove);
+            if (!faltando.isEmpty()) {
+                throw new ResourceNotFoundException(mensagem + faltando.iterator().next());
+            }
+        }
     }
 }
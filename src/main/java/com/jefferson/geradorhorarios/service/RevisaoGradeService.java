@@ -0,0 +1,193 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
+import com.jefferson.geradorhorarios.model.RevisaoGrade;
+import com.jefferson.geradorhorarios.repository.RevisaoGradeRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revisões da grade de cada turma e de cada professor, e dos professores habilitados em cada disciplina, em dois níveis.
+ * <p>
+ * As revisões gravadas ({@link RevisaoGrade}) versionam as grades de turmas e professores para os ETags da API de
+ * leitura. São incrementadas no banco na mesma transação da escrita (pelo lote do {@link LogAlteracoesService}),
+ * e por isso são as mesmas em todos os nós e sobrevivem a reinícios: um 304 só sai quando a grade gravada é a mesma.
+ * <p>
+ * As revisões locais, em memória, marcam os caches deste nó (ver {@link OcupacaoGradeService}). São incrementadas
+ * depois do commit das escritas locais e das alterações remotas lidas do log, e consultá-las não acessa o banco.
+ */
+@Service
+public class RevisaoGradeService {
+
+    private static final String CHAVE_GERAL = "GERAL";
+
+    private final RevisaoGradeRepository revisaoGradeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String comandoDeIncremento;
+
+    // Começa a partir do relógio para que as revisões não se repitam depois de um reinício da aplicação
+    private final AtomicLong sequencia = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final Map<Long, Long> revisoesPorTurma = new ConcurrentHashMap<>();
+    private final Map<Long, Long> revisoesPorProfessor = new ConcurrentHashMap<>();
+    private final Map<Long, Long> revisoesDasQualificacoes = new ConcurrentHashMap<>(); // Por disciplina
+    private volatile long revisaoGeral = sequencia.incrementAndGet();
+
+    public RevisaoGradeService(RevisaoGradeRepository revisaoGradeRepository, JdbcTemplate jdbcTemplate) {
+        this.revisaoGradeRepository = revisaoGradeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Incrementa a revisão local do escopo alterado.
+     * Só roda depois do commit (ou imediatamente, fora de transação), para que nenhum cliente receba
+     * uma revisão nova junto com dados ainda não confirmados.
+     *
+     * @param evento O evento de alteração da grade.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void registrarAlteracao(GradeAlteradaEvent evento) {
+        long revisao = sequencia.incrementAndGet();
+        switch (evento.escopo()) {
+            case TURMA -> revisoesPorTurma.put(evento.id(), revisao);
+            case PROFESSOR -> revisoesPorProfessor.put(evento.id(), revisao);
+            case QUALIFICACAO -> revisoesDasQualificacoes.put(evento.id(), revisao);
+            case GERAL -> revisaoGeral = revisao;
+        }
+    }
+
+    /**
+     * Retorna a revisão local da grade de uma turma.
+     *
+     * @param turmaId O 'ID' da turma.
+     * @return A revisão local, que só cresce.
+     */
+    public long revisaoDaTurma(Long turmaId) {
+        return Math.max(revisaoGeral, revisoesPorTurma.getOrDefault(turmaId, 0L));
+    }
+
+    /**
+     * Retorna a revisão local da grade de um professor.
+     *
+     * @param professorId O 'ID' do professor.
+     * @return A revisão local, que só cresce.
+     */
+    public long revisaoDoProfessor(Long professorId) {
+        return Math.max(revisaoGeral, revisoesPorProfessor.getOrDefault(professorId, 0L));
+    }
+
+    /**
+     * Retorna a revisão local dos professores habilitados numa disciplina.
+     * Só muda quando uma habilitação da disciplina é criada ou removida, ou quando um dos seus professores é alterado.
+     *
+     * @param disciplinaId O 'ID' da disciplina.
+     * @return A revisão local, que só cresce.
+     */
+    public long revisaoDasQualificacoes(Long disciplinaId) {
+        return Math.max(revisaoGeral, revisoesDasQualificacoes.getOrDefault(disciplinaId, 0L));
+    }
+
+    /**
+     * Incrementa, na transação corrente, as revisões gravadas dos escopos alterados (habilitações não têm revisão gravada).
+     * As linhas são atualizadas em ordem de chave, para que escritas concorrentes as travem sempre na mesma ordem.
+     *
+     * @param alteracoes As alterações locais da transação.
+     */
+    public void incrementarRevisoesGravadas(Collection<GradeAlteradaEvent> alteracoes) {
+        List<String> chaves = alteracoes.stream()
+                .filter(alteracao -> alteracao.escopo() != GradeAlteradaEvent.Escopo.QUALIFICACAO)
+                .map(alteracao -> chave(alteracao.escopo(), alteracao.id()))
+                .distinct()
+                .sorted()
+                .toList();
+        if (chaves.isEmpty()) {
+            return;
+        }
+        String comando = comandoDeIncremento();
+        try {
+            jdbcTemplate.batchUpdate(comando, chaves, chaves.size(), (ps, chave) -> ps.setString(1, chave));
+        } catch (DuplicateKeyException e) {
+            // Outra escrita criou a mesma linha entre a verificação e a inserção do merge: agora ela existe e é atualizada
+            jdbcTemplate.batchUpdate(comando, chaves, chaves.size(), (ps, chave) -> ps.setString(1, chave));
+        }
+    }
+
+    /**
+     * Retorna a revisão gravada da grade de uma turma, combinada com a revisão gravada geral.
+     * Dentro de uma transação, deve ser lida antes dos dados da grade: uma escrita confirmada entre as duas leituras
+     * deixa o ETag defasado (o cliente recarrega), e nunca adiantado em relação aos dados.
+     *
+     * @param turmaId O 'ID' da turma.
+     * @return A revisão no formato "turma.geral".
+     */
+    public String revisaoGravadaDaTurma(Long turmaId) {
+        return revisaoGravada(chave(GradeAlteradaEvent.Escopo.TURMA, turmaId));
+    }
+
+    /**
+     * Retorna a revisão gravada da grade de um professor, combinada com a revisão gravada geral.
+     * Deve ser lida antes dos dados da grade (ver {@link #revisaoGravadaDaTurma(Long)}).
+     *
+     * @param professorId O 'ID' do professor.
+     * @return A revisão no formato "professor.geral".
+     */
+    public String revisaoGravadaDoProfessor(Long professorId) {
+        return revisaoGravada(chave(GradeAlteradaEvent.Escopo.PROFESSOR, professorId));
+    }
+
+    private String revisaoGravada(String chave) {
+        Map<String, Long> revisoes = new HashMap<>();
+        for (RevisaoGrade revisao : revisaoGradeRepository.findAllById(List.of(chave, CHAVE_GERAL))) {
+            revisoes.put(revisao.getChave(), revisao.getRevisao());
+        }
+        return revisoes.getOrDefault(chave, 0L) + "." + revisoes.getOrDefault(CHAVE_GERAL, 0L);
+    }
+
+    private static String chave(GradeAlteradaEvent.Escopo escopo, Long id) {
+        return escopo == GradeAlteradaEvent.Escopo.GERAL ? CHAVE_GERAL : escopo.name() + ":" + id;
+    }
+
+    /**
+     * Escolhe o comando de incremento conforme o banco, na primeira vez em que é usado.
+     */
+    private String comandoDeIncremento() {
+        String comando = comandoDeIncremento;
+        if (comando == null) {
+            String banco = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            comando = "PostgreSQL".equals(banco)
+                    ? """
+                    insert into revisao_grade (chave, revisao) values (?, 1)
+                    on conflict (chave) do update set revisao = revisao_grade.revisao + 1
+                    """
+                    : """
+                    merge into revisao_grade r
+                    using (select cast(? as varchar(80)) as chave) nova
+                    on r.chave = nova.chave
+                    when matched then update set revisao = r.revisao + 1
+                    when not matched then insert (chave, revisao) values (nova.chave, 1)
+                    """;
+            comandoDeIncremento = comando;
+        }
+        return comando;
+    }
+
+    /**
+     * Monta o ETag forte da grade de uma turma na revisão gravada informada.
+     */
+    public static String etagDaTurma(Long turmaId, String revisao) {
+        return "\"turma-" + turmaId + "-" + revisao + "\"";
+    }
+
+    /**
+     * Monta o ETag forte da grade de um professor na revisão gravada informada.
+     */
+    public static String etagDoProfessor(Long professorId, String revisao) {
+        return "\"professor-" + professorId + "-" + revisao + "\"";
+    }
+}
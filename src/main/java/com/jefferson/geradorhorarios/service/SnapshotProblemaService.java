@@ -0,0 +1,112 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.dto.Periodo;
+import com.jefferson.geradorhorarios.gerador.ProblemaHorario;
+import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Leitura do problema de horários para o gerador, sem passar pelo contexto de persistência.
+ * Cada tabela é lida numa única consulta plana, em streaming (fetch size), e cada linha vai direto para o
+ * {@link ProblemaHorario.Builder}: nenhuma entidade, proxy LAZY ou coleção é criada, e não há dirty checking.
+ * São seis consultas no total, independentemente do tamanho da escola, todas na mesma transação REPEATABLE_READ:
+ * leem o mesmo instantâneo do banco, e uma escrita confirmada no meio da carga não deixa, por exemplo, uma aula
+ * apontando para um professor que a consulta de professores não viu.
+ * <p>
+ * Toda aula e toda restrição no banco tem uma faixa de períodos num dia letivo: as gravadas antes da grade horária
+ * que não cabem nela ficam em quarentena (ver {@link com.jefferson.geradorhorarios.util.MigracaoPeriodosGrade}).
+ */
+@Service
+public class SnapshotProblemaService {
+
+    private static final int TAMANHO_BUSCA = 1000;
+
+    private static final Object[] TIPOS_QUE_BLOQUEIAM = Arrays.stream(TipoDisponibilidade.values())
+            .filter(TipoDisponibilidade::bloqueiaAulas)
+            .map(Enum::name)
+            .toArray();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GradeHorariaService gradeHorariaService;
+
+    public SnapshotProblemaService(JdbcTemplate jdbcTemplate, GradeHorariaService gradeHorariaService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.gradeHorariaService = gradeHorariaService;
+    }
+
+    /**
+     * Monta o problema com o estado atual do banco: grade horária, turmas, disciplinas, professores e habilitações,
+     * restrições que bloqueiam aulas e as aulas já cadastradas (fixas).
+     *
+     * @return O problema, pronto para o gerador ou para exportação.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ProblemaHorario carregar() {
+        ProblemaHorario.Builder builder = ProblemaHorario.builder();
+        for (DayOfWeek dia : gradeHorariaService.dias()) {
+            builder.dia(dia);
+        }
+        for (Periodo periodo : gradeHorariaService.periodos()) {
+            builder.periodo(periodo.horarioInicio(), periodo.horarioFim());
+        }
+
+        consultar("select id, nome from turma order by id",
+                rs -> {
+                    builder.turma(rs.getLong(1), rs.getString(2));
+                });
+        consultar("select id, nome, carga_horaria_semanal from disciplina order by id",
+                rs -> {
+                    builder.disciplina(rs.getLong(1), rs.getString(2), rs.getInt(3));
+                });
+        consultar("select id, nome from professor order by id",
+                rs -> {
+                    builder.professor(rs.getLong(1), rs.getString(2));
+                });
+        consultar("select professor_id, disciplina_id from professor_disciplina",
+                rs -> {
+                    builder.qualificacao(rs.getLong(1), rs.getLong(2));
+                });
+        consultar("""
+                        select professor_id, dia_semana, periodo_inicio, periodo_fim
+                        from disponibilidade_professor
+                        where tipo in (%s)
+                        """.formatted(String.join(", ", Collections.nCopies(TIPOS_QUE_BLOQUEIAM.length, "?"))),
+                rs -> {
+                    builder.bloqueio(rs.getLong(1), DayOfWeek.valueOf(rs.getString(2)), rs.getInt(3), rs.getInt(4));
+                }, TIPOS_QUE_BLOQUEIAM);
+        consultar("""
+                        select turma_id, disciplina_id, professor_id, dia_semana, periodo_inicio, periodo_fim
+                        from aula
+                        order by id
+                        """,
+                rs -> {
+                    builder.aulaFixa(rs.getLong(1), rs.getLong(2), rs.getLong(3), DayOfWeek.valueOf(rs.getString(4)),
+                            rs.getInt(5), rs.getInt(6));
+                });
+        return builder.construir();
+    }
+
+    /**
+     * Executa a consulta em streaming: o fetch size vale só para ela, sem alterar o JdbcTemplate compartilhado.
+     * No Postgres, o streaming só vale dentro de uma transação.
+     */
+    private void consultar(String sql, RowCallbackHandler linha, Object... parametros) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(TAMANHO_BUSCA);
+            for (int i = 0; i < parametros.length; i++) {
+                ps.setObject(i + 1, parametros[i]);
+            }
+            return ps;
+        }, linha);
+    }
+}
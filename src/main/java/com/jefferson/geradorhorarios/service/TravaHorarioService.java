@@ -0,0 +1,196 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.dto.PosicaoAula;
+import com.jefferson.geradorhorarios.exception.BusinessRuleException;
+import com.jefferson.geradorhorarios.repository.ProfessorRepository;
+import com.jefferson.geradorhorarios.repository.TurmaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Controle de concorrência das escritas de aulas.
+ * Em vez de serializar a tabela inteira, cada escrita trava apenas as "listras" (stripes)
+ * correspondentes aos pares (professor, dia) e (turma, dia) que ela afeta.
+ * Edições em professores, turmas ou dias diferentes caem, em regra, em listras diferentes e não se bloqueiam.
+ * <p>
+ * As listras só valem dentro de um nó. Para que duas instâncias da aplicação não gravem aulas que chocam,
+ * a escrita também trava no banco, até o fim da transação, as linhas dos professores e das turmas envolvidos
+ * (SELECT ... FOR UPDATE). As listras continuam filtrando a disputa local antes de ela chegar ao banco.
+ * <p>
+ * A ordem global das listras vale para cada chamada de {@link #travar(Collection)}. Uma transação externa que grava
+ * várias aulas, uma chamada por vez, acumula listras e linhas fora dessa ordem: se ela cruzar com outra escrita,
+ * uma das duas espera até o tempo limite das listras (ou é escolhida como vítima pelo detector de deadlock do banco)
+ * e falha, em vez de travar para sempre. Quem precisa gravar várias aulas juntas deve travar todas as posições
+ * numa única chamada.
+ */
+@Service
+public class TravaHorarioService {
+
+    private static final int NUMERO_DE_LISTRAS = 1024; // Potência de 2, para calcular o índice com máscara
+    private static final int TIPO_PROFESSOR = 0;
+    private static final int TIPO_TURMA = 1;
+
+    private final ReentrantLock[] listras = new ReentrantLock[NUMERO_DE_LISTRAS];
+    private final long timeoutMs;
+    private final ProfessorRepository professorRepository;
+    private final TurmaRepository turmaRepository;
+
+    public TravaHorarioService(@Value("${horarios.trava.timeout-ms:5000}") long timeoutMs,
+                               ProfessorRepository professorRepository, TurmaRepository turmaRepository) {
+        for (int i = 0; i < listras.length; i++) {
+            listras[i] = new ReentrantLock();
+        }
+        this.timeoutMs = timeoutMs;
+        this.professorRepository = professorRepository;
+        this.turmaRepository = turmaRepository;
+    }
+
+    /**
+     * Trava as listras (professor, dia) e (turma, dia) de todas as posições informadas e, se houver uma transação
+     * ativa, as linhas dos professores e das turmas no banco.
+     * As listras são sempre adquiridas em ordem crescente de índice, e as linhas em ordem de 'ID' (professores antes
+     * das turmas), evitando deadlocks entre escritas concorrentes.
+     * Se existir uma transação ativa, a liberação é adiada até o fim dela, para que outra escrita
+     * só verifique choques depois que esta estiver visível no banco.
+     *
+     * @param posicoes As posições afetadas pela escrita (por exemplo, a posição nova e a persistida de uma aula).
+     * @return A trava adquirida, que deve ser fechada ao final da escrita.
+     * @throws BusinessRuleException Se as listras não puderem ser adquiridas dentro do tempo limite.
+     */
+    public Trava travar(Collection<PosicaoAula> posicoes) {
+        int[] indices = posicoes.stream()
+                .flatMapToInt(TravaHorarioService::indicesDaPosicao)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int adquiridas = 0;
+        try {
+            for (int indice : indices) {
+                if (!listras[indice].tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new BusinessRuleException("O horário está sendo editado por outro usuário. Tente novamente.");
+                }
+                adquiridas++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessRuleException("Edição de horário interrompida.", e);
+        } finally {
+            if (adquiridas < indices.length) {
+                liberar(indices, adquiridas);
+            }
+        }
+        try {
+            travarNoBanco(posicoes);
+        } catch (RuntimeException e) {
+            liberar(indices, indices.length);
+            throw e;
+        }
+        return new Trava(indices);
+    }
+
+    private void travarNoBanco(Collection<PosicaoAula> posicoes) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        Set<Long> professorIds = new TreeSet<>();
+        Set<Long> turmaIds = new TreeSet<>();
+        for (PosicaoAula posicao : posicoes) {
+            if (posicao.professorId() != null) {
+                professorIds.add(posicao.professorId());
+            }
+            if (posicao.turmaId() != null) {
+                turmaIds.add(posicao.turmaId());
+            }
+        }
+        if (!professorIds.isEmpty()) {
+            professorRepository.travarPorIds(professorIds);
+        }
+        if (!turmaIds.isEmpty()) {
+            turmaRepository.travarPorIds(turmaIds);
+        }
+    }
+
+    private static IntStream indicesDaPosicao(PosicaoAula posicao) {
+        DayOfWeek dia = posicao.diaSemana();
+        if (dia == null) {
+            return IntStream.empty();
+        }
+        IntStream.Builder indices = IntStream.builder();
+        if (posicao.professorId() != null) {
+            indices.add(indiceListra(TIPO_PROFESSOR, posicao.professorId(), dia));
+        }
+        if (posicao.turmaId() != null) {
+            indices.add(indiceListra(TIPO_TURMA, posicao.turmaId(), dia));
+        }
+        return indices.build();
+    }
+
+    private static int indiceListra(int tipo, long id, DayOfWeek dia) {
+        // Espalha (tipo, id, dia) com o finalizador do MurmurHash3 para evitar que IDs sequenciais colidam
+        long h = ((id * 7 + dia.ordinal()) << 1) | tipo;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & (NUMERO_DE_LISTRAS - 1);
+    }
+
+    private void liberar(int[] indices, int quantidade) {
+        for (int i = quantidade - 1; i >= 0; i--) {
+            listras[indices[i]].unlock();
+        }
+    }
+
+    /**
+     * Conjunto de listras adquiridas por uma escrita. Deve ser fechado pela mesma thread que o adquiriu.
+     */
+    public final class Trava implements AutoCloseable {
+        private final int[] indices;
+        private boolean fechada;
+
+        private Trava(int[] indices) {
+            this.indices = indices;
+        }
+
+        /**
+         * Libera as listras imediatamente, mesmo dentro de uma transação.
+         * Só pode ser usado quando nada foi escrito sob a trava (por exemplo, para refazê-la com outras listras).
+         * As linhas travadas no banco só são liberadas no fim da transação.
+         */
+        public void desistir() {
+            if (fechada) {
+                return;
+            }
+            fechada = true;
+            liberar(indices, indices.length);
+        }
+
+        @Override
+        public void close() {
+            if (fechada) {
+                return;
+            }
+            fechada = true;
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        liberar(indices, indices.length);
+                    }
+                });
+            } else {
+                liberar(indices, indices.length);
+            }
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.jefferson.geradorhorarios.service;
 
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
 import com.jefferson.geradorhorarios.exception.ResourceNotFoundException;
 import com.jefferson.geradorhorarios.model.Turma;
 import com.jefferson.geradorhorarios.repository.TurmaRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class TurmaService {
     private final TurmaRepository turmaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TurmaService(TurmaRepository turmaRepository) {
+    public TurmaService(TurmaRepository turmaRepository, ApplicationEventPublisher eventPublisher) {
         this.turmaRepository = turmaRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -19,8 +24,11 @@ public class TurmaService {
      * @param turma O objeto Turma a ser salvo.
      * @return A turma salva/atualizada.
      */
+    @Transactional
     public Turma salvarTurma(Turma turma) {
-        return turmaRepository.save(turma);
+        Turma salva = turmaRepository.save(turma);
+        eventPublisher.publishEvent(GradeAlteradaEvent.turma(salva.getId()));
+        return salva;
     }
 
     /**
@@ -40,6 +48,7 @@ public class TurmaService {
      *
      * @return Uma lista de todas as turmas.
      */
+    @Transactional(readOnly = true)
     public Iterable<Turma> findAll() {
         return turmaRepository.findAll();
     }
@@ -49,11 +58,13 @@ public class TurmaService {
      *
      * @param id O ID da turma a ser deletada.
      */
+    @Transactional
     public void deleteById(Long id) {
         if (!turmaRepository.existsById(id)) {
             throw new ResourceNotFoundException("Turma não encontrada com ID: " + id);
         }
         turmaRepository.deleteById(id);
+        eventPublisher.publishEvent(GradeAlteradaEvent.turma(id));
     }
 
     /**
@@ -62,10 +73,13 @@ public class TurmaService {
      * @param turma O objeto Turma a ser atualizado.
      * @return A turma atualizada.
      */
+    @Transactional
     public Turma update(Turma turma) {
         if (!turmaRepository.existsById(turma.getId())) {
             throw new ResourceNotFoundException("Turma não encontrada com ID: " + turma.getId());
         }
-        return turmaRepository.save(turma);
+        Turma salva = turmaRepository.save(turma);
+        eventPublisher.publishEvent(GradeAlteradaEvent.turma(salva.getId()));
+        return salva;
     }
 }
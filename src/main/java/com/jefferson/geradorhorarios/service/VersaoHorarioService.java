@@ -0,0 +1,274 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.dto.Alocacao;
+import com.jefferson.geradorhorarios.dto.DiffVersoes;
+import com.jefferson.geradorhorarios.exception.ResourceNotFoundException;
+import com.jefferson.geradorhorarios.model.AlocacaoVersao;
+import com.jefferson.geradorhorarios.model.VersaoHorario;
+import com.jefferson.geradorhorarios.model.enums.TipoAlocacaoVersao;
+import com.jefferson.geradorhorarios.repository.AlocacaoVersaoRepository;
+import com.jefferson.geradorhorarios.repository.AulaRepository;
+import com.jefferson.geradorhorarios.repository.VersaoHorarioRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Time;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Versionamento da grade de horários.
+ * Cada versão guarda apenas o delta (alocações adicionadas e removidas) em relação à versão pai,
+ * e a cada {@link #INTERVALO_CHECKPOINT} versões guarda também uma cópia completa (checkpoint).
+ * Reconstruir uma versão custa um checkpoint mais, no máximo, {@link #INTERVALO_CHECKPOINT} deltas;
+ * comparar duas versões percorre só os deltas entre elas e o ancestral comum.
+ * As cadeias de ancestrais são lidas com uma consulta recursiva, e não uma versão por vez.
+ */
+@Service
+public class VersaoHorarioService {
+
+    static final int INTERVALO_CHECKPOINT = 8;
+    private static final int TAMANHO_LOTE = 1000;
+    private static final List<TipoAlocacaoVersao> TIPOS_DELTA =
+            List.of(TipoAlocacaoVersao.ADICIONADA, TipoAlocacaoVersao.REMOVIDA);
+
+    private final VersaoHorarioRepository versaoHorarioRepository;
+    private final AlocacaoVersaoRepository alocacaoVersaoRepository;
+    private final AulaRepository aulaRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public VersaoHorarioService(VersaoHorarioRepository versaoHorarioRepository,
+                                AlocacaoVersaoRepository alocacaoVersaoRepository,
+                                AulaRepository aulaRepository,
+                                JdbcTemplate jdbcTemplate) {
+        this.versaoHorarioRepository = versaoHorarioRepository;
+        this.alocacaoVersaoRepository = alocacaoVersaoRepository;
+        this.aulaRepository = aulaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Registra a grade atual (tabela de aulas) como uma nova versão.
+     *
+     * @param versaoPaiId O 'ID' da versão pai, ou null para iniciar um novo histórico.
+     * @param descricao   Descrição opcional da versão.
+     * @return A versão criada.
+     */
+    @Transactional
+    public VersaoHorario criarVersaoDaGradeAtual(Long versaoPaiId, String descricao) {
+        return criarVersao(versaoPaiId, aulaRepository.buscarAlocacoes(), descricao);
+    }
+
+    /**
+     * Registra um conjunto de alocações como uma nova versão, guardando apenas o delta em relação à versão pai.
+     *
+     * @param versaoPaiId O 'ID' da versão pai, ou null para iniciar um novo histórico.
+     * @param alocacoes   As alocações da nova versão.
+     * @param descricao   Descrição opcional da versão.
+     * @return A versão criada.
+     * @throws ResourceNotFoundException Se a versão pai não for encontrada.
+     */
+    @Transactional
+    public VersaoHorario criarVersao(Long versaoPaiId, Collection<Alocacao> alocacoes, String descricao) {
+        Set<Alocacao> novas = new HashSet<>(alocacoes);
+        VersaoHorario versao = new VersaoHorario();
+        versao.setVersaoPaiId(versaoPaiId);
+        versao.setDescricao(descricao);
+        versao.setCriadaEm(LocalDateTime.now());
+        versao.setQuantidadeAlocacoes(novas.size());
+
+        Set<Alocacao> adicionadas;
+        Set<Alocacao> removidas;
+        if (versaoPaiId == null) {
+            // A raiz não tem delta: a sua cópia completa já é o ponto de partida
+            adicionadas = Set.of();
+            removidas = Set.of();
+            versao.setProfundidade(0);
+            versao.setDistanciaDoCheckpoint(0);
+        } else {
+            VersaoHorario pai = buscarVersaoPorId(versaoPaiId);
+            Set<Alocacao> doPai = reconstruir(pai.getId());
+            adicionadas = new HashSet<>(novas);
+            adicionadas.removeAll(doPai);
+            removidas = new HashSet<>(doPai);
+            removidas.removeAll(novas);
+            versao.setProfundidade(pai.getProfundidade() + 1);
+            versao.setDistanciaDoCheckpoint(pai.getDistanciaDoCheckpoint() + 1);
+        }
+        versao.setCheckpoint(versao.getDistanciaDoCheckpoint() == 0
+                || versao.getDistanciaDoCheckpoint() >= INTERVALO_CHECKPOINT);
+        if (versao.getCheckpoint()) {
+            versao.setDistanciaDoCheckpoint(0);
+        }
+        versao.setQuantidadeAlteracoes(adicionadas.size() + removidas.size());
+        versao = versaoHorarioRepository.save(versao);
+
+        inserirLinhas(versao.getId(), TipoAlocacaoVersao.ADICIONADA, adicionadas);
+        inserirLinhas(versao.getId(), TipoAlocacaoVersao.REMOVIDA, removidas);
+        if (versao.getCheckpoint()) {
+            inserirLinhas(versao.getId(), TipoAlocacaoVersao.CHECKPOINT, novas);
+        }
+        return versao;
+    }
+
+    /**
+     * Busca uma versão pelo 'ID'. Lança ResourceNotFoundException se não encontrada.
+     *
+     * @param id O 'ID' da versão.
+     * @return A versão encontrada.
+     */
+    public VersaoHorario buscarVersaoPorId(Long id) {
+        return versaoHorarioRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Versão de horário não encontrada com ID: " + id));
+    }
+
+    /**
+     * Reconstrói as alocações de uma versão a partir do checkpoint mais próximo e dos deltas seguintes.
+     *
+     * @param versaoId O 'ID' da versão.
+     * @return As alocações da versão.
+     * @throws ResourceNotFoundException Se a versão não for encontrada.
+     */
+    @Transactional(readOnly = true)
+    public Set<Alocacao> reconstruir(Long versaoId) {
+        // Uma consulta traz a cadeia inteira, da versão pedida até o checkpoint
+        List<VersaoHorario> cadeia = new ArrayList<>(versaoHorarioRepository.buscarCadeiaAteOCheckpoint(versaoId));
+        if (cadeia.isEmpty()) {
+            throw new ResourceNotFoundException("Versão de horário não encontrada com ID: " + versaoId);
+        }
+        VersaoHorario atual = cadeia.removeLast();
+
+        Set<Alocacao> estado = new HashSet<>();
+        for (AlocacaoVersao linha : alocacaoVersaoRepository.findByVersaoIdAndTipo(atual.getId(), TipoAlocacaoVersao.CHECKPOINT)) {
+            estado.add(linha.toAlocacao());
+        }
+
+        Map<Long, List<AlocacaoVersao>> deltas = buscarDeltas(cadeia);
+        for (int i = cadeia.size() - 1; i >= 0; i--) {
+            for (AlocacaoVersao linha : deltas.getOrDefault(cadeia.get(i).getId(), List.of())) {
+                if (linha.getTipo() == TipoAlocacaoVersao.ADICIONADA) {
+                    estado.add(linha.toAlocacao());
+                } else {
+                    estado.remove(linha.toAlocacao());
+                }
+            }
+        }
+        return estado;
+    }
+
+    /**
+     * Calcula a diferença entre duas versões.
+     * Quando as versões compartilham um ancestral, apenas os deltas do caminho origem → ancestral → destino
+     * são lidos, de modo que o custo é proporcional ao tamanho das mudanças, e não ao tamanho da grade.
+     *
+     * @param origemId  O 'ID' da versão de origem.
+     * @param destinoId O 'ID' da versão de destino.
+     * @return As alocações adicionadas e removidas da origem para o destino.
+     */
+    @Transactional(readOnly = true)
+    public DiffVersoes diff(Long origemId, Long destinoId) {
+        List<VersaoHorario> ancestraisOrigem = buscarAncestrais(origemId);
+        List<VersaoHorario> ancestraisDestino = buscarAncestrais(destinoId);
+
+        // O ancestral comum é o primeiro ancestral do destino que também é ancestral da origem
+        Map<Long, Integer> posicaoNaOrigem = new HashMap<>();
+        for (int i = 0; i < ancestraisOrigem.size(); i++) {
+            posicaoNaOrigem.put(ancestraisOrigem.get(i).getId(), i);
+        }
+        int noDestino = 0;
+        while (noDestino < ancestraisDestino.size() && !posicaoNaOrigem.containsKey(ancestraisDestino.get(noDestino).getId())) {
+            noDestino++;
+        }
+        if (noDestino == ancestraisDestino.size()) {
+            // Históricos diferentes, sem ancestral comum
+            return diffCompleto(ancestraisOrigem.getFirst(), ancestraisDestino.getFirst());
+        }
+        List<VersaoHorario> caminhoOrigem = ancestraisOrigem.subList(0,
+                posicaoNaOrigem.get(ancestraisDestino.get(noDestino).getId()));
+        List<VersaoHorario> caminhoDestino = ancestraisDestino.subList(0, noDestino);
+
+        List<VersaoHorario> caminho = new ArrayList<>(caminhoOrigem);
+        caminho.addAll(caminhoDestino);
+        Map<Long, List<AlocacaoVersao>> deltas = buscarDeltas(caminho);
+
+        // true = adicionada, false = removida; operações opostas sobre a mesma alocação se anulam
+        Map<Alocacao, Boolean> liquido = new HashMap<>();
+        for (VersaoHorario versao : caminhoOrigem) { // Desfaz da origem até o ancestral
+            for (AlocacaoVersao linha : deltas.getOrDefault(versao.getId(), List.of())) {
+                aplicar(liquido, linha.toAlocacao(), linha.getTipo() == TipoAlocacaoVersao.REMOVIDA);
+            }
+        }
+        for (int i = caminhoDestino.size() - 1; i >= 0; i--) { // Refaz do ancestral até o destino
+            for (AlocacaoVersao linha : deltas.getOrDefault(caminhoDestino.get(i).getId(), List.of())) {
+                aplicar(liquido, linha.toAlocacao(), linha.getTipo() == TipoAlocacaoVersao.ADICIONADA);
+            }
+        }
+
+        Set<Alocacao> adicionadas = new HashSet<>();
+        Set<Alocacao> removidas = new HashSet<>();
+        liquido.forEach((alocacao, adicionada) -> (adicionada ? adicionadas : removidas).add(alocacao));
+        return new DiffVersoes(origemId, destinoId, adicionadas, removidas);
+    }
+
+    private List<VersaoHorario> buscarAncestrais(Long versaoId) {
+        List<VersaoHorario> ancestrais = versaoHorarioRepository.buscarAncestrais(versaoId);
+        if (ancestrais.isEmpty()) {
+            throw new ResourceNotFoundException("Versão de horário não encontrada com ID: " + versaoId);
+        }
+        return ancestrais;
+    }
+
+    private DiffVersoes diffCompleto(VersaoHorario origem, VersaoHorario destino) {
+        Set<Alocacao> daOrigem = reconstruir(origem.getId());
+        Set<Alocacao> doDestino = reconstruir(destino.getId());
+        Set<Alocacao> adicionadas = new HashSet<>(doDestino);
+        adicionadas.removeAll(daOrigem);
+        Set<Alocacao> removidas = new HashSet<>(daOrigem);
+        removidas.removeAll(doDestino);
+        return new DiffVersoes(origem.getId(), destino.getId(), adicionadas, removidas);
+    }
+
+    private static void aplicar(Map<Alocacao, Boolean> liquido, Alocacao alocacao, boolean adiciona) {
+        Boolean anterior = liquido.get(alocacao);
+        if (anterior != null && anterior != adiciona) {
+            liquido.remove(alocacao);
+        } else {
+            liquido.put(alocacao, adiciona);
+        }
+    }
+
+    private Map<Long, List<AlocacaoVersao>> buscarDeltas(List<VersaoHorario> versoes) {
+        Map<Long, List<AlocacaoVersao>> porVersao = new HashMap<>();
+        if (versoes.isEmpty()) {
+            return porVersao;
+        }
+        List<Long> ids = versoes.stream().map(VersaoHorario::getId).toList();
+        for (AlocacaoVersao linha : alocacaoVersaoRepository.findByVersaoIdInAndTipoIn(ids, TIPOS_DELTA)) {
+            porVersao.computeIfAbsent(linha.getVersaoId(), id -> new ArrayList<>()).add(linha);
+        }
+        return porVersao;
+    }
+
+    private void inserirLinhas(Long versaoId, TipoAlocacaoVersao tipo, Collection<Alocacao> alocacoes) {
+        if (alocacoes.isEmpty()) {
+            return;
+        }
+        // Inserção em lote via JDBC: o IDENTITY impede que o Hibernate agrupe os INSERTs
+        jdbcTemplate.batchUpdate("""
+                        insert into alocacao_versao
+                            (versao_id, tipo, turma_id, disciplina_id, professor_id, dia_semana, horario_inicio, horario_fim)
+                        values (?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                new ArrayList<>(alocacoes), TAMANHO_LOTE, (ps, alocacao) -> {
+                    ps.setLong(1, versaoId);
+                    ps.setString(2, tipo.name());
+                    ps.setLong(3, alocacao.turmaId());
+                    ps.setLong(4, alocacao.disciplinaId());
+                    ps.setLong(5, alocacao.professorId());
+                    ps.setString(6, alocacao.diaSemana().name());
+                    ps.setTime(7, Time.valueOf(alocacao.horarioInicio()));
+                    ps.setTime(8, Time.valueOf(alocacao.horarioFim()));
+                });
+    }
+}
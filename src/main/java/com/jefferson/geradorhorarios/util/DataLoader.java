@@ -1,5 +1,6 @@
 package com.jefferson.geradorhorarios.util;
 
+import com.jefferson.geradorhorarios.dto.QualificacaoRequest;
 import com.jefferson.geradorhorarios.model.*;
 import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
 import com.jefferson.geradorhorarios.service.*;
@@ -12,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.HashSet;
+import java.util.List;
 
 @Component
 @Profile("test")
@@ -81,22 +83,14 @@ public class DataLoader implements CommandLineRunner {
         System.out.println("Turmas salvos: " + turma1A.getNome() + ", " + turma1B.getNome()); // Debugging
 
         // 4. Ligar Professores a Disciplinas (Many-to-Many)
-        // Agora que o DataLoader é @Transactional, os objetos ana, bruno, etc.
-        // que foram retornados pelo professorService.salvarProfessor() já estão "gerenciados"
-        // e suas coleções LAZY podem ser acessadas dentro desta transação.
-        ana.addDisciplina(matematica);
-        ana.addDisciplina(ciencias);
-        professorService.salvarProfessor(ana); // Salve para persistir as mudanças no relacionamento
-
-        bruno.addDisciplina(portugues);
-        bruno.addDisciplina(historia);
-        professorService.salvarProfessor(bruno);
-
-        carla.addDisciplina(geografia);
-        professorService.salvarProfessor(carla);
-
-        daniel.addDisciplina(matematica);
-        professorService.salvarProfessor(daniel);
+        // Em lote, direto na tabela de junção, sem carregar as coleções de professores e disciplinas
+        professorService.qualificarEmLote(List.of(
+                new QualificacaoRequest(ana.getId(), matematica.getId()),
+                new QualificacaoRequest(ana.getId(), ciencias.getId()),
+                new QualificacaoRequest(bruno.getId(), portugues.getId()),
+                new QualificacaoRequest(bruno.getId(), historia.getId()),
+                new QualificacaoRequest(carla.getId(), geografia.getId()),
+                new QualificacaoRequest(daniel.getId(), matematica.getId())));
 
         System.out.println("Relacionamentos Professor-Disciplina criados."); // Debugging
 
@@ -104,11 +98,11 @@ public class DataLoader implements CommandLineRunner {
         // Como ana, bruno, carla são objetos gerenciados, pode adicionar diretamente
         // às suas coleções e salvar o professor novamente.
         DisponibilidadeProfessor dispAna = new DisponibilidadeProfessor(null, ana, DayOfWeek.MONDAY,
-                LocalTime.of(8, 0), LocalTime.of(12, 0), TipoDisponibilidade.FOLGA, "Consulta médica");
+                LocalTime.of(8, 0), LocalTime.of(12, 0), TipoDisponibilidade.FOLGA, "Consulta médica", null, null);
         DisponibilidadeProfessor dispBruno = new DisponibilidadeProfessor(null, bruno, DayOfWeek.TUESDAY,
-                LocalTime.of(14, 0), LocalTime.of(18, 0), TipoDisponibilidade.AC, "Reunião administrativa");
+                LocalTime.of(14, 0), LocalTime.of(18, 0), TipoDisponibilidade.AC, "Reunião administrativa", null, null);
         DisponibilidadeProfessor dispCarla = new DisponibilidadeProfessor(null, carla, DayOfWeek.WEDNESDAY,
-                LocalTime.of(8, 0), LocalTime.of(12, 0), TipoDisponibilidade.PREFERENCIA, "Horário preferencial");
+                LocalTime.of(8, 0), LocalTime.of(12, 0), TipoDisponibilidade.PREFERENCIA, "Horário preferencial", null, null);
 
         // Use o método addDisponibilidade da entidade Professor para garantir a consistência bidirecional
         ana.addDisponibilidade(dispAna);
@@ -125,9 +119,9 @@ public class DataLoader implements CommandLineRunner {
 
         // 6. Inserir Aulas (exemplo de aulas já agendadas)
         Aula aula1 = new Aula(null, matematica, ana, turma1A, DayOfWeek.TUESDAY,
-                LocalTime.of(8, 0), LocalTime.of(9, 0));
+                LocalTime.of(8, 0), LocalTime.of(9, 0), null, null);
         Aula aula2 = new Aula(null, portugues, bruno, turma1B, DayOfWeek.WEDNESDAY,
-                LocalTime.of(9, 0), LocalTime.of(10, 0));
+                LocalTime.of(9, 0), LocalTime.of(10, 0), null, null);
 
         aulaService.salvarAula(aula1);
         aulaService.salvarAula(aula2);
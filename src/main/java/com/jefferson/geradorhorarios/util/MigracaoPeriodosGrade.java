@@ -0,0 +1,129 @@
+package com.jefferson.geradorhorarios.util;
+
+import com.jefferson.geradorhorarios.exception.BusinessRuleException;
+import com.jefferson.geradorhorarios.model.Aula;
+import com.jefferson.geradorhorarios.model.DisponibilidadeProfessor;
+import com.jefferson.geradorhorarios.model.RegistroQuarentena;
+import com.jefferson.geradorhorarios.repository.AulaRepository;
+import com.jefferson.geradorhorarios.repository.DisponibilidadeProfessorRepository;
+import com.jefferson.geradorhorarios.repository.RegistroQuarentenaRepository;
+import com.jefferson.geradorhorarios.service.GradeHorariaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Preenche, na inicialização, a faixa de períodos de aulas e disponibilidades gravadas antes da grade horária.
+ * Aulas desalinhadas são encaixadas nos períodos que atingem, desde que o encaixe não as faça chocar com outra aula
+ * do professor ou da turma. As que não podem ser migradas (dia não letivo, fora de todos os períodos, atravessando
+ * um intervalo ou chocando depois do encaixe) são movidas para a quarentena ({@link RegistroQuarentena}) para
+ * correção manual. Ao final, as colunas de período passam a ser obrigatórias no banco.
+ */
+@Component
+public class MigracaoPeriodosGrade implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoPeriodosGrade.class);
+
+    private final AulaRepository aulaRepository;
+    private final DisponibilidadeProfessorRepository disponibilidadeProfessorRepository;
+    private final RegistroQuarentenaRepository registroQuarentenaRepository;
+    private final GradeHorariaService gradeHorariaService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public MigracaoPeriodosGrade(AulaRepository aulaRepository,
+                                 DisponibilidadeProfessorRepository disponibilidadeProfessorRepository,
+                                 RegistroQuarentenaRepository registroQuarentenaRepository,
+                                 GradeHorariaService gradeHorariaService,
+                                 JdbcTemplate jdbcTemplate) {
+        this.aulaRepository = aulaRepository;
+        this.disponibilidadeProfessorRepository = disponibilidadeProfessorRepository;
+        this.registroQuarentenaRepository = registroQuarentenaRepository;
+        this.gradeHorariaService = gradeHorariaService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        List<Aula> desalinhadas = new ArrayList<>();
+        for (Aula aula : aulaRepository.findByPeriodoInicioIsNull()) {
+            try {
+                gradeHorariaService.alinharAula(aula);
+            } catch (BusinessRuleException e) {
+                desalinhadas.add(aula);
+            }
+        }
+        // As desalinhadas são encaixadas depois das alinhadas, e as consultas de choque (que descarregam as
+        // alterações pendentes antes de executar) enxergam as aulas já migradas, inclusive as encaixadas antes
+        for (Aula aula : desalinhadas) {
+            try {
+                int[] faixa = gradeHorariaService.faixaDeEncaixe(aula);
+                verificarChoques(aula, faixa);
+                gradeHorariaService.encaixarAula(aula, faixa);
+                log.warn("Aula {} encaixada na grade horária: {} {}-{}", aula.getId(),
+                        aula.getDiaSemana(), aula.getHorarioInicio(), aula.getHorarioFim());
+            } catch (BusinessRuleException e) {
+                quarentenar(aula, e.getMessage());
+            }
+        }
+        for (DisponibilidadeProfessor disponibilidade : disponibilidadeProfessorRepository.findByPeriodoInicioIsNull()) {
+            try {
+                gradeHorariaService.ajustarDisponibilidade(disponibilidade);
+            } catch (BusinessRuleException e) {
+                quarentenar(disponibilidade, e.getMessage());
+            }
+        }
+        aulaRepository.flush();
+        exigirPeriodos();
+    }
+
+    private void verificarChoques(Aula aula, int[] faixa) {
+        if (aulaRepository.existeChoqueDoProfessor(aula.getProfessor().getId(), aula.getDiaSemana(),
+                faixa[0], faixa[1], aula.getId())) {
+            throw new BusinessRuleException("Encaixada na grade, a aula chocaria com outra aula do professor.");
+        }
+        if (aulaRepository.existeChoqueDaTurma(aula.getTurma().getId(), aula.getDiaSemana(),
+                faixa[0], faixa[1], aula.getId())) {
+            throw new BusinessRuleException("Encaixada na grade, a aula chocaria com outra aula da turma.");
+        }
+    }
+
+    private void quarentenar(Aula aula, String motivo) {
+        registroQuarentenaRepository.save(new RegistroQuarentena(null, RegistroQuarentena.Origem.AULA, aula.getId(),
+                aula.getProfessor().getId(), aula.getTurma().getId(), aula.getDisciplina().getId(), aula.getDiaSemana(),
+                aula.getHorarioInicio(), aula.getHorarioFim(), null, null, motivo, LocalDateTime.now()));
+        // Remoção em lote: o remove() da entidade recusaria a linha sem faixa (colunas obrigatórias no mapeamento)
+        aulaRepository.deleteAllByIdInBatch(List.of(aula.getId()));
+        log.error("Aula {} movida para a quarentena: {}", aula.getId(), motivo);
+    }
+
+    private void quarentenar(DisponibilidadeProfessor disponibilidade, String motivo) {
+        registroQuarentenaRepository.save(new RegistroQuarentena(null, RegistroQuarentena.Origem.DISPONIBILIDADE,
+                disponibilidade.getId(), disponibilidade.getProfessor().getId(), null, null,
+                disponibilidade.getDiaSemana(), disponibilidade.getHorarioInicio(), disponibilidade.getHorarioFim(),
+                disponibilidade.getTipo().name(), disponibilidade.getObservacao(), motivo, LocalDateTime.now()));
+        disponibilidadeProfessorRepository.deleteAllByIdInBatch(List.of(disponibilidade.getId()));
+        log.error("Disponibilidade {} movida para a quarentena: {}", disponibilidade.getId(), motivo);
+    }
+
+    /**
+     * Torna as colunas de período obrigatórias. O 'ddl-auto=update' não altera colunas criadas como anuláveis
+     * por versões anteriores; aqui, sem mais linhas a migrar, o banco passa a recusar aulas e disponibilidades sem faixa.
+     * O comando é o mesmo no Postgres e no H2, e não faz nada se a coluna já for obrigatória.
+     */
+    private void exigirPeriodos() {
+        for (String tabela : List.of("aula", "disponibilidade_professor")) {
+            for (String coluna : List.of("periodo_inicio", "periodo_fim")) {
+                jdbcTemplate.execute("alter table " + tabela + " alter column " + coluna + " set not null");
+            }
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.jefferson.geradorhorarios.carga;
+
+import com.jefferson.geradorhorarios.GeradorHorariosApplication;
+import com.jefferson.geradorhorarios.controller.HorarioController;
+import com.jefferson.geradorhorarios.dto.Periodo;
+import com.jefferson.geradorhorarios.dto.QualificacaoRequest;
+import com.jefferson.geradorhorarios.exception.BusinessRuleException;
+import com.jefferson.geradorhorarios.gerador.GeradorHorarios;
+import com.jefferson.geradorhorarios.model.*;
+import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
+import com.jefferson.geradorhorarios.service.*;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Simulador de carga ponta a ponta: sobe a aplicação no mesmo processo (sem servidor web) e dispara, em várias threads,
+ * uma mistura configurável de operações sobre os serviços, medindo a latência de cada tipo de operação com HdrHistogram.
+ * <p>
+ * Há dois tipos de usuário: coordenadores, que editam o horário (salvarAula com verificação de choques, deletarAula,
+ * edição de disponibilidades e gerações ocasionais), e visualizadores, que consultam as grades de turmas e professores.
+ * Os visualizadores passam pelo {@link HorarioController}, como um navegador: cada um guarda o último ETag de cada grade
+ * e o envia no If-None-Match, de modo que as respostas 304 entram na medição (coluna "304").
+ * Cada thread é um usuário em laço fechado, com uma pausa opcional entre as operações.
+ * Uso, pelo perfil Maven {@code carga}:
+ * <pre>
+ * mvn -Pcarga test-compile exec:java -Dcarga.args="--coordenadores=8 --visualizadores=64 --duracao=60 --virtuais=true"
+ * </pre>
+ * Opções (todas com {@code --nome=valor}):
+ * <ul>
+ *     <li>coordenadores, visualizadores: quantidade de threads de cada tipo (padrão 4 e 16);</li>
+ *     <li>virtuais: usar threads virtuais em vez de threads de plataforma (padrão false);</li>
+ *     <li>duracao, aquecimento: segundos de medição e de aquecimento descartado (padrão 30 e 5);</li>
+ *     <li>pausa-ms: pausa de cada usuário entre duas operações (padrão 0);</li>
+ *     <li>mix-coordenador: pesos das operações de escrita (padrão salvarAula:45,deletarAula:35,disponibilidade:19,geracao:1);
+ *     a grade se estabiliza quando a fração de aulas aceitas (sem choque) cai para deletarAula / salvarAula, em vez de
+ *     encher ao longo da execução;</li>
+ *     <li>mix-visualizador: pesos das operações de leitura (padrão gradeTurma:60,gradeProfessor:40);</li>
+ *     <li>turmas, professores, disciplinas: tamanho da massa de dados criada antes da medição (padrão 30, 45 e 10);</li>
+ *     <li>histogramas: diretório onde gravar a distribuição completa de cada operação (opcional).</li>
+ * </ul>
+ * As demais opções são repassadas ao Spring: {@code --spring.profiles.active=dev} usa o Postgres local,
+ * e {@code --spring.datasource.hikari.maximum-pool-size=40} ajusta o pool de conexões.
+ * A geração executa o gerador sobre o problema carregado do banco, sem gravar o resultado, para não encher a grade.
+ * Cada execução cria a própria massa de dados ("Carga ..."), que é apagada ao final, inclusive se a simulação falhar.
+ * As latências do aquecimento são descartadas pelo intervalo do {@link Recorder}; o primeiro erro inesperado de cada
+ * operação é registrado no log com a pilha, e os seguintes só são contados.
+ */
+public class SimuladorCarga {
+
+    private static final Logger log = LoggerFactory.getLogger(SimuladorCarga.class);
+    private static final long LATENCIA_MAXIMA_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, String> opcoes;
+    private final Map<String, Recorder> latencias = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rejeitadas = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> erros = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> naoModificadas = new ConcurrentHashMap<>(); // Respostas 304
+    private final Set<String> operacoesComErro = ConcurrentHashMap.newKeySet();
+
+    private final AulaService aulaService;
+    private final DisponibilidadeProfessorService disponibilidadeProfessorService;
+    private final HorarioController horarioController;
+    private final GeracaoHorarioService geracaoHorarioService;
+    private final List<DayOfWeek> dias;
+    private final List<Periodo> periodos;
+
+    private final List<Turma> turmas = new ArrayList<>();
+    private final List<Disciplina> disciplinas = new ArrayList<>();
+    private final List<Professor> professores = new ArrayList<>();
+    private final Map<Long, List<Professor>> professoresPorDisciplina = new HashMap<>();
+    private final ConcurrentLinkedDeque<Long> aulasCriadas = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<Long> disponibilidadesCriadas = new ConcurrentLinkedDeque<>();
+
+    private volatile boolean medindo; // Falso durante o aquecimento: rejeições e erros ainda não são contados
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(GeradorHorariosApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args)) {
+            SimuladorCarga simulador = new SimuladorCarga(contexto, lerOpcoes(args));
+            try {
+                simulador.executar();
+            } finally {
+                simulador.apagarMassaDeDados(contexto);
+            }
+        }
+    }
+
+    SimuladorCarga(ConfigurableApplicationContext contexto, Map<String, String> opcoes) {
+        this.opcoes = opcoes;
+        this.aulaService = contexto.getBean(AulaService.class);
+        this.disponibilidadeProfessorService = contexto.getBean(DisponibilidadeProfessorService.class);
+        this.horarioController = contexto.getBean(HorarioController.class);
+        this.geracaoHorarioService = contexto.getBean(GeracaoHorarioService.class);
+        GradeHorariaService gradeHorariaService = contexto.getBean(GradeHorariaService.class);
+        this.dias = gradeHorariaService.dias();
+        this.periodos = gradeHorariaService.periodos();
+        criarMassaDeDados(contexto);
+    }
+
+    private void criarMassaDeDados(ConfigurableApplicationContext contexto) {
+        String sufixo = Long.toString(System.currentTimeMillis(), 36);
+        TurmaService turmaService = contexto.getBean(TurmaService.class);
+        DisciplinaService disciplinaService = contexto.getBean(DisciplinaService.class);
+        ProfessorService professorService = contexto.getBean(ProfessorService.class);
+
+        for (int i = 0; i < inteiro("turmas", 30); i++) {
+            turmas.add(turmaService.salvarTurma(new Turma(null, "Carga " + sufixo + " turma " + i)));
+        }
+        for (int i = 0; i < inteiro("disciplinas", 10); i++) {
+            disciplinas.add(disciplinaService.salvarDisciplina(
+                    new Disciplina(null, "Carga " + sufixo + " disciplina " + i, 2 + i % 3, new HashSet<>())));
+        }
+        List<QualificacaoRequest> qualificacoes = new ArrayList<>();
+        for (int i = 0; i < inteiro("professores", 45); i++) {
+            Professor professor = professorService.salvarProfessor(new Professor(null, "Carga professor " + i,
+                    "carga." + sufixo + "." + i + "@example.com", new HashSet<>(), new HashSet<>()));
+            professores.add(professor);
+            // Cada professor leciona três disciplinas, de modo que toda disciplina tenha professores
+            for (int k = 0; k < 3; k++) {
+                Disciplina disciplina = disciplinas.get((i + k) % disciplinas.size());
+                qualificacoes.add(new QualificacaoRequest(professor.getId(), disciplina.getId()));
+                professoresPorDisciplina.computeIfAbsent(disciplina.getId(), id -> new ArrayList<>()).add(professor);
+            }
+        }
+        professorService.qualificarEmLote(qualificacoes);
+    }
+
+    void executar() throws InterruptedException, IOException {
+        Map<String, Integer> mixCoordenador = lerMix(texto("mix-coordenador",
+                "salvarAula:45,deletarAula:35,disponibilidade:19,geracao:1"));
+        Map<String, Integer> mixVisualizador = lerMix(texto("mix-visualizador", "gradeTurma:60,gradeProfessor:40"));
+        int coordenadores = inteiro("coordenadores", 4);
+        int visualizadores = inteiro("visualizadores", 16);
+        long pausaMs = inteiro("pausa-ms", 0);
+        boolean virtuais = Boolean.parseBoolean(texto("virtuais", "false"));
+
+        ExecutorService executor = virtuais ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(coordenadores + visualizadores);
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(inteiro("aquecimento", 5) + inteiro("duracao", 30));
+        for (int i = 0; i < coordenadores; i++) {
+            executor.submit(() -> usuario(mixCoordenador, fim, pausaMs));
+        }
+        for (int i = 0; i < visualizadores; i++) {
+            executor.submit(() -> usuario(mixVisualizador, fim, pausaMs));
+        }
+
+        TimeUnit.SECONDS.sleep(inteiro("aquecimento", 5));
+        // Troca o histograma ativo de cada operação, descartando o aquecimento sem parar as threads
+        latencias.values().forEach(Recorder::getIntervalHistogram);
+        medindo = true;
+        long inicioMedicao = System.nanoTime();
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        Map<String, Histogram> medidas = new TreeMap<>();
+        latencias.forEach((operacao, recorder) -> medidas.put(operacao, recorder.getIntervalHistogram()));
+        relatar(medidas, (System.nanoTime() - inicioMedicao) / 1e9, coordenadores, visualizadores, virtuais);
+    }
+
+    private void usuario(Map<String, Integer> mix, long fim, long pausaMs) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        Map<String, String> etags = new HashMap<>(); // Cache do "navegador" deste usuário, por URL
+        while (System.nanoTime() < fim) {
+            int sorteio = aleatorio.nextInt(total);
+            String operacao = null;
+            for (Map.Entry<String, Integer> entrada : mix.entrySet()) {
+                sorteio -= entrada.getValue();
+                if (sorteio < 0) {
+                    operacao = entrada.getKey();
+                    break;
+                }
+            }
+            medir(operacao, aleatorio, etags);
+            if (pausaMs > 0) {
+                try {
+                    Thread.sleep(pausaMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void medir(String operacao, ThreadLocalRandom aleatorio, Map<String, String> etags) {
+        long inicio = System.nanoTime();
+        try {
+            if (!executarOperacao(operacao, aleatorio, etags)) {
+                return; // Nada a fazer (por exemplo, nenhuma aula para apagar); não entra na medição
+            }
+        } catch (BusinessRuleException e) {
+            if (medindo) {
+                rejeitadas.computeIfAbsent(operacao, o -> new LongAdder()).increment(); // Choque: resposta normal do sistema
+            }
+        } catch (RuntimeException e) {
+            if (operacoesComErro.add(operacao)) {
+                log.warn("Primeiro erro inesperado em '{}'; os seguintes só serão contados.", operacao, e);
+            }
+            if (medindo) {
+                erros.computeIfAbsent(operacao, o -> new LongAdder()).increment();
+            }
+        }
+        long duracao = Math.min(System.nanoTime() - inicio, LATENCIA_MAXIMA_NANOS);
+        latencias.computeIfAbsent(operacao, o -> new Recorder(LATENCIA_MAXIMA_NANOS, 3)).recordValue(duracao);
+    }
+
+    private boolean executarOperacao(String operacao, ThreadLocalRandom aleatorio, Map<String, String> etags) {
+        switch (operacao) {
+            case "salvarAula" -> {
+                Disciplina disciplina = sortear(disciplinas, aleatorio);
+                Periodo periodo = sortear(periodos, aleatorio);
+                Aula aula = new Aula(null, disciplina, sortear(professoresPorDisciplina.get(disciplina.getId()), aleatorio),
+                        sortear(turmas, aleatorio), sortear(dias, aleatorio), periodo.horarioInicio(), periodo.horarioFim(),
+                        null, null);
+                aulasCriadas.add(aulaService.salvarAula(aula).getId());
+            }
+            case "deletarAula" -> {
+                Long id = aulasCriadas.pollFirst();
+                if (id == null) {
+                    return false;
+                }
+                aulaService.deletarAula(id);
+            }
+            case "disponibilidade" -> {
+                Long antiga = disponibilidadesCriadas.size() > professores.size() ? disponibilidadesCriadas.pollFirst() : null;
+                if (antiga != null) {
+                    disponibilidadeProfessorService.deletarDisponibilidade(antiga);
+                } else {
+                    Periodo periodo = sortear(periodos, aleatorio);
+                    DisponibilidadeProfessor disponibilidade = new DisponibilidadeProfessor(null, sortear(professores, aleatorio),
+                            sortear(dias, aleatorio), periodo.horarioInicio(), periodo.horarioFim(),
+                            TipoDisponibilidade.PREFERENCIA, "Simulador de carga", null, null);
+                    disponibilidadesCriadas.add(disponibilidadeProfessorService.salvarDisponibilidade(disponibilidade).getId());
+                }
+            }
+            case "geracao" -> new GeradorHorarios().gerar(geracaoHorarioService.carregarProblema());
+            case "gradeTurma" -> {
+                Long turmaId = sortear(turmas, aleatorio).getId();
+                consultarGrade(operacao, "/api/horarios/turmas/" + turmaId, etags,
+                        request -> horarioController.gradeDaTurma(turmaId, request));
+            }
+            case "gradeProfessor" -> {
+                Long professorId = sortear(professores, aleatorio).getId();
+                consultarGrade(operacao, "/api/horarios/professores/" + professorId, etags,
+                        request -> horarioController.gradeDoProfessor(professorId, request));
+            }
+            default -> throw new IllegalArgumentException("Operação desconhecida no mix: " + operacao);
+        }
+        return true;
+    }
+
+    /**
+     * Faz um GET condicional como um navegador: envia o último ETag recebido para a URL e guarda o novo.
+     */
+    private void consultarGrade(String operacao, String url, Map<String, String> etags,
+                                Function<WebRequest, ResponseEntity<?>> controlador) {
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", url);
+        String etag = etags.get(url);
+        if (etag != null) {
+            requisicao.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+        ResponseEntity<?> entidade = controlador.apply(new ServletWebRequest(requisicao, resposta));
+        if (entidade == null && resposta.getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+            if (medindo) {
+                naoModificadas.computeIfAbsent(operacao, o -> new LongAdder()).increment();
+            }
+        } else if (entidade != null) {
+            etags.put(url, entidade.getHeaders().getETag());
+        }
+    }
+
+    /**
+     * Apaga a massa de dados criada para esta execução, na ordem das chaves estrangeiras.
+     */
+    void apagarMassaDeDados(ConfigurableApplicationContext contexto) {
+        for (Long id = aulasCriadas.pollFirst(); id != null; id = aulasCriadas.pollFirst()) {
+            aulaService.deletarAula(id);
+        }
+        for (Long id = disponibilidadesCriadas.pollFirst(); id != null; id = disponibilidadesCriadas.pollFirst()) {
+            disponibilidadeProfessorService.deletarDisponibilidade(id);
+        }
+        ProfessorService professorService = contexto.getBean(ProfessorService.class);
+        professores.forEach(professor -> professorService.deletarProfessor(professor.getId()));
+        DisciplinaService disciplinaService = contexto.getBean(DisciplinaService.class);
+        disciplinas.forEach(disciplina -> disciplinaService.deletarDisciplina(disciplina.getId()));
+        TurmaService turmaService = contexto.getBean(TurmaService.class);
+        turmas.forEach(turma -> turmaService.deleteById(turma.getId()));
+        log.info("Massa de dados da simulação apagada ({} turmas, {} professores, {} disciplinas).",
+                turmas.size(), professores.size(), disciplinas.size());
+    }
+
+    private void relatar(Map<String, Histogram> medidas, double segundos, int coordenadores, int visualizadores,
+                         boolean virtuais) throws IOException {
+        PrintStream out = System.out;
+        out.printf("%nSimulação: %d coordenador(es), %d visualizador(es), threads %s, %.1f s medidos%n",
+                coordenadores, visualizadores, virtuais ? "virtuais" : "de plataforma", segundos);
+        out.printf("%-16s %10s %10s %9s %9s %9s %9s %9s %9s %9s%n",
+                "operação", "total", "ops/s", "p50 ms", "p99 ms", "p999 ms", "máx ms", "rejeit.", "erros", "304");
+        long totalGeral = 0;
+        for (Map.Entry<String, Histogram> entrada : medidas.entrySet()) {
+            Histogram h = entrada.getValue();
+            totalGeral += h.getTotalCount();
+            out.printf("%-16s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9d %9d %9d%n", entrada.getKey(), h.getTotalCount(),
+                    h.getTotalCount() / segundos, ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()),
+                    contagem(rejeitadas, entrada.getKey()), contagem(erros, entrada.getKey()),
+                    contagem(naoModificadas, entrada.getKey()));
+        }
+        out.printf("%-16s %10d %10.1f%n", "total", totalGeral, totalGeral / segundos);
+
+        String diretorio = opcoes.get("histogramas");
+        if (diretorio != null) {
+            Files.createDirectories(Path.of(diretorio));
+            for (Map.Entry<String, Histogram> entrada : medidas.entrySet()) {
+                try (PrintStream arquivo = new PrintStream(Files.newOutputStream(Path.of(diretorio, entrada.getKey() + ".hgrm")))) {
+                    entrada.getValue().outputPercentileDistribution(arquivo, 1_000_000.0); // Em milissegundos
+                }
+            }
+            out.println("Distribuições gravadas em " + diretorio);
+        }
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static long contagem(Map<String, LongAdder> contadores, String operacao) {
+        LongAdder contador = contadores.get(operacao);
+        return contador == null ? 0 : contador.sum();
+    }
+
+    private static <T> T sortear(List<T> itens, ThreadLocalRandom aleatorio) {
+        return itens.get(aleatorio.nextInt(itens.size()));
+    }
+
+    private int inteiro(String nome, int padrao) {
+        return Integer.parseInt(texto(nome, Integer.toString(padrao)));
+    }
+
+    private String texto(String nome, String padrao) {
+        return opcoes.getOrDefault(nome, padrao);
+    }
+
+    private static Map<String, Integer> lerMix(String mix) {
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        for (String item : mix.split(",")) {
+            String[] partes = item.trim().split(":");
+            pesos.put(partes[0].trim(), Integer.parseInt(partes[1].trim()));
+        }
+        return pesos;
+    }
+
+    private static Map<String, String> lerOpcoes(String[] args) {
+        Map<String, String> opcoes = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                opcoes.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return opcoes;
+    }
+}
@@ -0,0 +1,144 @@
+package com.jefferson.geradorhorarios.config;
+
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roteamento entre dois bancos H2 que fazem o papel de principal e réplica.
+ */
+class RoteamentoDataSourceTests {
+
+    private final DataSource principal = new DriverManagerDataSource("jdbc:h2:mem:principal;DB_CLOSE_DELAY=-1", "sa", "");
+    private final DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", "");
+
+    @Test
+    void leiturasVaoParaAReplicaEEscritasParaOPrincipal() throws Exception {
+        LeituraAposEscrita leituraAposEscrita = new LeituraAposEscrita(60_000);
+        DataSource roteado = RoteamentoDataSource.criar(principal, replica, new MonitorReplica(replica, null, 60_000),
+                leituraAposEscrita);
+
+        assertEquals("REPLICA", banco(roteado, true));
+        assertEquals("PRINCIPAL", banco(roteado, false));
+        leituraAposEscrita.registrarAlteracao(GradeAlteradaEvent.turma(1L)); // Depois do commit da escrita
+        // Logo depois de uma escrita, quem escreveu lê do principal, e qualquer um lê do principal a grade alterada
+        assertEquals("PRINCIPAL", banco(roteado, true));
+        assertEquals("PRINCIPAL", emOutraThread(() -> leituraAposEscrita.lendoGrade(
+                GradeAlteradaEvent.Escopo.TURMA, 1L, () -> banco(roteado, true))));
+        // As demais leituras dos outros clientes continuam na réplica
+        assertEquals("REPLICA", emOutraThread(() -> leituraAposEscrita.lendoGrade(
+                GradeAlteradaEvent.Escopo.TURMA, 2L, () -> banco(roteado, true))));
+        assertEquals("REPLICA", emOutraThread(() -> banco(roteado, true)));
+    }
+
+    @Test
+    void alteracaoVindaDeOutroNoLevaAGradeParaOPrincipal() throws Exception {
+        LeituraAposEscrita leituraAposEscrita = new LeituraAposEscrita(60_000);
+        DataSource roteado = RoteamentoDataSource.criar(principal, replica, new MonitorReplica(replica, null, 60_000),
+                leituraAposEscrita);
+
+        leituraAposEscrita.registrarAlteracao(GradeAlteradaEvent.remoto(GradeAlteradaEvent.Escopo.PROFESSOR, 3L));
+        assertEquals("PRINCIPAL", emOutraThread(() -> leituraAposEscrita.lendoGrade(
+                GradeAlteradaEvent.Escopo.PROFESSOR, 3L, () -> banco(roteado, true))));
+        assertEquals("REPLICA", emOutraThread(() -> leituraAposEscrita.lendoGrade(
+                GradeAlteradaEvent.Escopo.TURMA, 3L, () -> banco(roteado, true))));
+
+        // Uma alteração geral leva todas as grades para o principal
+        leituraAposEscrita.registrarAlteracao(GradeAlteradaEvent.remoto(GradeAlteradaEvent.Escopo.GERAL, null));
+        assertEquals("PRINCIPAL", emOutraThread(() -> leituraAposEscrita.lendoGrade(
+                GradeAlteradaEvent.Escopo.TURMA, 3L, () -> banco(roteado, true))));
+    }
+
+    @Test
+    void escritaDesfeitaNaoPrendeAsLeiturasNoPrincipal() {
+        DataSource roteado = RoteamentoDataSource.criar(principal, replica, new MonitorReplica(replica, null, 60_000),
+                new LeituraAposEscrita(60_000));
+
+        TransactionTemplate transacao = new TransactionTemplate(new DataSourceTransactionManager(roteado));
+        transacao.executeWithoutResult(status -> {
+            new JdbcTemplate(roteado).queryForObject("select database()", String.class);
+            status.setRollbackOnly();
+        });
+        assertEquals("REPLICA", banco(roteado, true));
+    }
+
+    @Test
+    void clienteQueEscreveuLeDoPrincipalNasRequisicoesSeguintes() throws Exception {
+        LeituraAposEscrita leituraAposEscrita = new LeituraAposEscrita(60_000);
+        DataSource roteado = RoteamentoDataSource.criar(principal, replica, new MonitorReplica(replica, null, 60_000),
+                leituraAposEscrita);
+
+        MockHttpServletResponse respostaDaEscrita = new MockHttpServletResponse();
+        leituraAposEscrita.doFilter(new MockHttpServletRequest(), respostaDaEscrita,
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                        banco(roteado, false);
+                    }
+                }));
+        Cookie cookie = respostaDaEscrita.getCookie(LeituraAposEscrita.COOKIE);
+        assertNotNull(cookie);
+
+        assertEquals("PRINCIPAL", emOutraThread(() -> leituraNaRequisicao(leituraAposEscrita, roteado, cookie)));
+        assertEquals("REPLICA", emOutraThread(() -> leituraNaRequisicao(leituraAposEscrita, roteado, null)));
+    }
+
+    @Test
+    void replicaAtrasadaOuInacessivelDevolveAsLeiturasAoPrincipal() {
+        MonitorReplica atrasada = new MonitorReplica(replica, "select 10000", 5000);
+        atrasada.verificarAtraso();
+        assertEquals("PRINCIPAL", banco(roteado(atrasada), true));
+
+        MonitorReplica inacessivel = new MonitorReplica(replica, "select * from tabela_inexistente", 5000);
+        inacessivel.verificarAtraso();
+        assertEquals("PRINCIPAL", banco(roteado(inacessivel), true));
+
+        MonitorReplica emDia = new MonitorReplica(replica, "select 10", 5000);
+        emDia.verificarAtraso();
+        assertEquals("REPLICA", banco(roteado(emDia), true));
+    }
+
+    private DataSource roteado(MonitorReplica monitor) {
+        return RoteamentoDataSource.criar(principal, replica, monitor, new LeituraAposEscrita(5000));
+    }
+
+    private static String leituraNaRequisicao(LeituraAposEscrita leituraAposEscrita, DataSource dataSource, Cookie cookie)
+            throws Exception {
+        MockHttpServletRequest requisicao = new MockHttpServletRequest();
+        if (cookie != null) {
+            requisicao.setCookies(cookie);
+        }
+        String[] banco = new String[1];
+        leituraAposEscrita.doFilter(requisicao, new MockHttpServletResponse(), (req, resp) -> banco[0] = banco(dataSource, true));
+        return banco[0];
+    }
+
+    private static String emOutraThread(Callable<String> tarefa) throws Exception {
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            return executor.submit(tarefa).get();
+        }
+    }
+
+    private static String banco(DataSource dataSource, boolean somenteLeitura) {
+        TransactionTemplate transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transacao.setReadOnly(somenteLeitura);
+        return transacao.execute(status -> new JdbcTemplate(dataSource).queryForObject("select database()", String.class));
+    }
+}
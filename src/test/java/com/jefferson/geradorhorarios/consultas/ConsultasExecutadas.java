@@ -0,0 +1,59 @@
+package com.jefferson.geradorhorarios.consultas;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Os comandos SQL registrados por {@link ContadorConsultas#medir(Runnable)}.
+ *
+ * @param comandos Os comandos executados, em ordem.
+ */
+public record ConsultasExecutadas(List<Comando> comandos) {
+
+    /**
+     * Um comando executado. Comandos avulsos têm {@code linhasDoLote} zero; lotes JDBC têm o número de linhas enviadas.
+     */
+    public record Comando(String sql, int linhasDoLote) {
+
+        public boolean lote() {
+            return linhasDoLote > 0;
+        }
+    }
+
+    public long avulsos() {
+        return comandos.stream().filter(c -> !c.lote()).count();
+    }
+
+    public long lotes() {
+        return comandos.stream().filter(Comando::lote).count();
+    }
+
+    /**
+     * Verifica o orçamento de consultas da operação medida.
+     * Ao estourar, o teste falha listando todos os comandos executados, para que a consulta a mais
+     * (tipicamente um N+1 de uma associação LAZY) seja fácil de encontrar.
+     *
+     * @param operacao       Descrição da operação, usada na mensagem de erro.
+     * @param maximoAvulsos  O número máximo de comandos avulsos (selects, inserts, updates...).
+     * @param maximoDeLotes  O número máximo de lotes JDBC (executeBatch).
+     */
+    public void verificarOrcamento(String operacao, int maximoAvulsos, int maximoDeLotes) {
+        if (avulsos() <= maximoAvulsos && lotes() <= maximoDeLotes) {
+            return;
+        }
+        StringBuilder mensagem = new StringBuilder()
+                .append("Orçamento de consultas excedido em '").append(operacao).append("': ")
+                .append(avulsos()).append(" comandos (máximo ").append(maximoAvulsos).append(") e ")
+                .append(lotes()).append(" lotes (máximo ").append(maximoDeLotes).append(").");
+        for (int i = 0; i < comandos.size(); i++) {
+            Comando comando = comandos.get(i);
+            mensagem.append(System.lineSeparator()).append(i + 1).append(". ");
+            if (comando.lote()) {
+                mensagem.append("[lote de ").append(comando.linhasDoLote()).append("] ");
+            }
+            mensagem.append(comando.sql() == null ? "?" : comando.sql().strip().replaceAll("\\s+", " "));
+        }
+        fail(mensagem.toString());
+    }
+}
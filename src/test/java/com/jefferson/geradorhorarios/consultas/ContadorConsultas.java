@@ -0,0 +1,137 @@
+package com.jefferson.geradorhorarios.consultas;
+
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contagem dos comandos SQL executados por uma operação, para os testes de orçamento de consultas.
+ * O DataSource da aplicação é envolvido por proxies dinâmicos (DataSource, Connection e Statement) que registram
+ * cada execução na medição ativa da thread corrente. Assim entram na conta tanto o SQL do Hibernate
+ * quanto o do JdbcTemplate, inclusive o dos listeners executados na mesma thread.
+ */
+public final class ContadorConsultas {
+
+    private static final ThreadLocal<List<ConsultasExecutadas.Comando>> MEDICAO = new ThreadLocal<>();
+
+    private ContadorConsultas() {
+    }
+
+    /**
+     * Executa a ação registrando os comandos SQL que ela dispara na thread corrente.
+     * Medições não podem ser aninhadas.
+     *
+     * @param acao A operação a ser medida.
+     * @return Os comandos executados, em ordem.
+     */
+    public static ConsultasExecutadas medir(Runnable acao) {
+        if (MEDICAO.get() != null) {
+            throw new IllegalStateException("Já existe uma medição de consultas ativa nesta thread.");
+        }
+        List<ConsultasExecutadas.Comando> comandos = new ArrayList<>();
+        MEDICAO.set(comandos);
+        try {
+            acao.run();
+        } finally {
+            MEDICAO.remove();
+        }
+        return new ConsultasExecutadas(comandos);
+    }
+
+    /**
+     * Envolve o DataSource com o proxy de contagem. O proxy implementa todas as interfaces do original
+     * (por exemplo, Closeable e os MXBeans do Hikari), de modo que o ciclo de vida do pool continua o mesmo.
+     *
+     * @param dataSource O DataSource original.
+     * @return O DataSource que registra os comandos executados.
+     */
+    public static DataSource envolver(DataSource dataSource) {
+        Class<?>[] interfaces = ClassUtils.getAllInterfacesForClass(dataSource.getClass(),
+                ContadorConsultas.class.getClassLoader());
+        return (DataSource) Proxy.newProxyInstance(ContadorConsultas.class.getClassLoader(), interfaces,
+                (proxy, metodo, args) -> {
+                    Object resultado = invocar(dataSource, metodo, args);
+                    return resultado instanceof Connection conexao ? envolver(conexao) : resultado;
+                });
+    }
+
+    private static Connection envolver(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(ContadorConsultas.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    Object resultado = invocar(conexao, metodo, args);
+                    if (resultado instanceof Statement comando && Statement.class.isAssignableFrom(metodo.getReturnType())) {
+                        // prepareStatement e prepareCall recebem o SQL já na criação
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                        return Proxy.newProxyInstance(ContadorConsultas.class.getClassLoader(),
+                                new Class<?>[]{metodo.getReturnType()}, new ComandoInterceptado(comando, sql));
+                    }
+                    return resultado;
+                });
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void registrar(String sql, int linhasDoLote) {
+        List<ConsultasExecutadas.Comando> comandos = MEDICAO.get();
+        if (comandos != null) {
+            comandos.add(new ConsultasExecutadas.Comando(sql, linhasDoLote));
+        }
+    }
+
+    /**
+     * Registra as execuções de um Statement: cada execute* conta como um comando e cada executeBatch como um lote.
+     */
+    private static final class ComandoInterceptado implements InvocationHandler {
+        private final Statement alvo;
+        private final String sqlPreparado;
+        private final List<String> sqlsDoLote = new ArrayList<>();
+        private int linhasDoLote;
+
+        private ComandoInterceptado(Statement alvo, String sqlPreparado) {
+            this.alvo = alvo;
+            this.sqlPreparado = sqlPreparado;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String sqlDoArgumento = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            switch (metodo.getName()) {
+                case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" ->
+                        registrar(sqlDoArgumento != null ? sqlDoArgumento : sqlPreparado, 0);
+                case "addBatch" -> {
+                    if (sqlDoArgumento != null) {
+                        sqlsDoLote.add(sqlDoArgumento);
+                    }
+                    linhasDoLote++;
+                }
+                case "clearBatch" -> {
+                    sqlsDoLote.clear();
+                    linhasDoLote = 0;
+                }
+                case "executeBatch", "executeLargeBatch" -> {
+                    registrar(sqlsDoLote.isEmpty() ? sqlPreparado : String.join("; ", sqlsDoLote), linhasDoLote);
+                    sqlsDoLote.clear();
+                    linhasDoLote = 0;
+                }
+                default -> {
+                }
+            }
+            return invocar(alvo, metodo, args);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.jefferson.geradorhorarios.consultas;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve os DataSources do contexto de teste com o {@link ContadorConsultas}.
+ * Usar com {@code @Import(ContadorConsultasConfig.class)} nos testes de orçamento de consultas.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class ContadorConsultasConfig {
+
+    @Bean
+    static BeanPostProcessor contadorConsultasPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? ContadorConsultas.envolver(dataSource) : bean;
+            }
+        };
+    }
+}
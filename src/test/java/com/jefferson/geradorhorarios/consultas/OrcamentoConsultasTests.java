@@ -0,0 +1,117 @@
+package com.jefferson.geradorhorarios.consultas;
+
+import com.jefferson.geradorhorarios.dto.QualificacaoRequest;
+import com.jefferson.geradorhorarios.model.Aula;
+import com.jefferson.geradorhorarios.model.Disciplina;
+import com.jefferson.geradorhorarios.model.Professor;
+import com.jefferson.geradorhorarios.model.Turma;
+import com.jefferson.geradorhorarios.repository.DisciplinaRepository;
+import com.jefferson.geradorhorarios.repository.ProfessorRepository;
+import com.jefferson.geradorhorarios.repository.TurmaRepository;
+import com.jefferson.geradorhorarios.service.AulaService;
+import com.jefferson.geradorhorarios.service.GradeHorarioService;
+import com.jefferson.geradorhorarios.service.ProfessorService;
+import com.jefferson.geradorhorarios.service.SnapshotProblemaService;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Orçamentos de consultas das operações mais sensíveis a N+1 (associações LAZY de Aula, Professor e Disciplina).
+ * Um orçamento estourado indica uma regressão de acesso a dados, e a falha lista o SQL executado.
+ */
+@SpringBootTest
+@Import(ContadorConsultasConfig.class)
+class OrcamentoConsultasTests {
+
+    @Autowired
+    private AulaService aulaService;
+
+    @Autowired
+    private ProfessorService professorService;
+
+    @Autowired
+    private GradeHorarioService gradeHorarioService;
+
+    @Autowired
+    private SnapshotProblemaService snapshotProblemaService;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void gradesEPosicionamentoDeAulasFicamNoOrcamento() {
+        Turma turma = turmaRepository.save(new Turma(null, "Turma (orçamento)"));
+        Professor professor = professorRepository.save(
+                new Professor(null, "Prof. Orçamento", "orcamento@example.com", new HashSet<>(), new HashSet<>()));
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Física (orçamento)", 2, new HashSet<>()));
+
+        ContadorConsultas.medir(() -> aulaService.salvarAula(new Aula(null, disciplina, professor, turma,
+                        DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0), null, null)))
+                .verificarOrcamento("salvar aula", 5, 2); // Travas do professor e da turma, dois choques, a inserção e os lotes do log e das revisões
+
+        ContadorConsultas.medir(() -> gradeHorarioService.gradeDaTurma(turma.getId()))
+                .verificarOrcamento("grade da turma", 3, 0); // Revisão, turma e aulas
+        ContadorConsultas.medir(() -> gradeHorarioService.gradeDoProfessor(professor.getId()))
+                .verificarOrcamento("grade do professor", 4, 0);
+        ContadorConsultas.medir(() -> aulaService.listarAulas(null, turma.getId(), null, null, 50))
+                .verificarOrcamento("página de aulas", 1, 0);
+    }
+
+    @Test
+    void qualificacaoEmLoteECargaDoGeradorNaoDependemDoVolume() {
+        List<Professor> professores = professorRepository.saveAll(IntStream.range(0, 20)
+                .mapToObj(i -> new Professor(null, "Prof. Lote " + i, "lote" + i + "@example.com", new HashSet<>(), new HashSet<>()))
+                .toList());
+        List<Disciplina> disciplinas = disciplinaRepository.saveAll(IntStream.range(0, 50)
+                .mapToObj(i -> new Disciplina(null, "Disciplina (lote) " + i, 1, new HashSet<>()))
+                .toList());
+        List<QualificacaoRequest> pares = new ArrayList<>();
+        for (Professor professor : professores) {
+            for (Disciplina disciplina : disciplinas) {
+                pares.add(new QualificacaoRequest(professor.getId(), disciplina.getId()));
+            }
+        }
+
+        // Duas verificações de existência, dois lotes de 500 e um lote com o log de alterações
+        ContadorConsultas.medir(() -> professorService.qualificarEmLote(pares))
+                .verificarOrcamento("qualificar 1000 pares", 2, 3);
+        ContadorConsultas.medir(snapshotProblemaService::carregar)
+                .verificarOrcamento("carga do gerador", 6, 0);
+    }
+
+    @Test
+    void orcamentoEstouradoListaOSqlExecutado() {
+        ConsultasExecutadas consultas = ContadorConsultas.medir(() -> {
+            for (int i = 0; i < 3; i++) {
+                jdbcTemplate.queryForObject("select count(*) from turma", Long.class);
+            }
+        });
+
+        assertEquals(3, consultas.avulsos());
+        AssertionFailedError erro = assertThrows(AssertionFailedError.class,
+                () -> consultas.verificarOrcamento("contagem de turmas", 2, 0));
+        assertTrue(erro.getMessage().contains("3. select count(*) from turma"), erro.getMessage());
+    }
+}
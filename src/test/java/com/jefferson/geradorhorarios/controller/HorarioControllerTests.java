@@ -0,0 +1,97 @@
+package com.jefferson.geradorhorarios.controller;
+
+import com.jefferson.geradorhorarios.model.Aula;
+import com.jefferson.geradorhorarios.model.Disciplina;
+import com.jefferson.geradorhorarios.model.Professor;
+import com.jefferson.geradorhorarios.model.Turma;
+import com.jefferson.geradorhorarios.repository.DisciplinaRepository;
+import com.jefferson.geradorhorarios.repository.ProfessorRepository;
+import com.jefferson.geradorhorarios.repository.TurmaRepository;
+import com.jefferson.geradorhorarios.service.AulaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * GETs condicionais da API de leitura: 304 enquanto a grade não muda, 200 com ETag novo depois de uma alteração.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class HorarioControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AulaService aulaService;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Test
+    void etagMudaSoQuandoAGradeDaTurmaMuda() throws Exception {
+        Turma turmaA = turmaRepository.save(new Turma(null, "Turma A (ETag)"));
+        Turma turmaB = turmaRepository.save(new Turma(null, "Turma B (ETag)"));
+        Professor professor = professorRepository.save(
+                new Professor(null, "Prof. ETag", "etag@example.com", new HashSet<>(), new HashSet<>()));
+        Professor outroProfessor = professorRepository.save(
+                new Professor(null, "Prof. ETag 2", "etag2@example.com", new HashSet<>(), new HashSet<>()));
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Química (ETag)", 2, new HashSet<>()));
+        String urlA = "/api/horarios/turmas/" + turmaA.getId();
+
+        String etag = etag(urlA);
+        assertEquals(304, status(urlA, etag));
+
+        // Alteração em outra turma e outro professor não invalida a grade da turma A
+        aulaService.salvarAula(new Aula(null, disciplina, outroProfessor, turmaB, DayOfWeek.MONDAY,
+                LocalTime.of(8, 0), LocalTime.of(9, 0), null, null));
+        assertEquals(304, status(urlA, etag));
+
+        // Alteração na própria turma invalida
+        Aula aula = aulaService.salvarAula(new Aula(null, disciplina, professor, turmaA, DayOfWeek.TUESDAY,
+                LocalTime.of(8, 0), LocalTime.of(9, 0), null, null));
+        assertEquals(200, status(urlA, etag));
+        etag = etag(urlA);
+
+        // Mover a aula para outra turma e outro professor invalida também a turma e o professor de origem
+        String urlProfessor = "/api/horarios/professores/" + professor.getId();
+        String etagProfessor = etag(urlProfessor);
+        aulaService.salvarAula(new Aula(aula.getId(), disciplina, outroProfessor, turmaB, DayOfWeek.TUESDAY,
+                LocalTime.of(8, 0), LocalTime.of(9, 0), null, null));
+        assertEquals(200, status(urlA, etag));
+        assertEquals(200, status(urlProfessor, etagProfessor));
+    }
+
+    @Test
+    void gradeInexistenteEh404MesmoComIfNoneMatch() throws Exception {
+        // Sem linhas de revisão gravadas para o 'ID', o ETag seria o de uma grade vazia na revisão inicial
+        assertEquals(404, status("/api/horarios/turmas/999999", "\"turma-999999-0.0\""));
+        assertEquals(404, status("/api/horarios/professores/999999", "\"professor-999999-0.0\""));
+    }
+
+    private String etag(String url) throws Exception {
+        String etag = mockMvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private int status(String url, String etag) throws Exception {
+        return mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,60 @@
+package com.jefferson.geradorhorarios.gerador;
+
+import com.jefferson.geradorhorarios.dto.Alocacao;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeradorHorariosTests {
+
+    private static final String PROBLEMA = """
+            DIA;MONDAY
+            DIA;TUESDAY
+            PERIODO;08:00;09:00
+            PERIODO;09:00;10:00
+            PERIODO;10:00;11:00
+            TURMA;1;1A
+            TURMA;2;1B
+            DISCIPLINA;1;Matemática;2
+            DISCIPLINA;2;História;1
+            PROFESSOR;1;Ana
+            PROFESSOR;2;Bruno
+            QUALIFICACAO;1;1
+            QUALIFICACAO;2;2
+            BLOQUEIO;1;MONDAY;08:00;09:30
+            AULA;1;2;2;TUESDAY;10:00;11:00
+            """;
+
+    @Test
+    void geraSemChoquesRespeitandoBloqueiosEAulasFixas() {
+        ProblemaHorario problema = ProblemaHorarioCsv.ler(new StringReader(PROBLEMA));
+        SolucaoHorario solucao = new GeradorHorarios().gerar(problema);
+
+        assertTrue(solucao.pendencias().isEmpty());
+        assertEquals(5, solucao.aulasGeradas());
+        assertTrue(solucao.alocacoes().contains(new Alocacao(1L, 2L, 2L, DayOfWeek.TUESDAY,
+                LocalTime.of(10, 0), LocalTime.of(11, 0))));
+
+        Set<String> ocupados = new HashSet<>();
+        for (Alocacao a : solucao.alocacoes()) {
+            assertTrue(ocupados.add("T" + a.turmaId() + a.diaSemana() + a.horarioInicio()), "Choque de turma: " + a);
+            assertTrue(ocupados.add("P" + a.professorId() + a.diaSemana() + a.horarioInicio()), "Choque de professor: " + a);
+            assertFalse(a.professorId() == 1L && a.diaSemana() == DayOfWeek.MONDAY
+                    && a.horarioInicio().isBefore(LocalTime.of(10, 0)), "Aula em horário bloqueado: " + a);
+        }
+
+        // O problema exportado volta a ser lido igual
+        StringWriter exportado = new StringWriter();
+        ProblemaHorarioCsv.escrever(problema, exportado);
+        StringWriter reexportado = new StringWriter();
+        ProblemaHorarioCsv.escrever(ProblemaHorarioCsv.ler(new StringReader(exportado.toString())), reexportado);
+        assertEquals(exportado.toString(), reexportado.toString());
+    }
+}
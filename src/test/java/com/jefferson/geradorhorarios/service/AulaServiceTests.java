@@ -0,0 +1,202 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.dto.AulaResumo;
+import com.jefferson.geradorhorarios.dto.PaginaKeyset;
+import com.jefferson.geradorhorarios.exception.BusinessRuleException;
+import com.jefferson.geradorhorarios.model.Aula;
+import com.jefferson.geradorhorarios.model.Disciplina;
+import com.jefferson.geradorhorarios.model.Professor;
+import com.jefferson.geradorhorarios.model.Turma;
+import com.jefferson.geradorhorarios.repository.AulaRepository;
+import com.jefferson.geradorhorarios.repository.DisciplinaRepository;
+import com.jefferson.geradorhorarios.repository.ProfessorRepository;
+import com.jefferson.geradorhorarios.repository.TurmaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AulaServiceTests {
+
+    @Autowired
+    private AulaService aulaService;
+
+    @Autowired
+    private AulaRepository aulaRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void escritasConcorrentesNaoAgendamOProfessorDuasVezes() throws Exception {
+        Professor professor = professorRepository.save(
+                new Professor(null, "Prof. Concorrência", "concorrencia@example.com", new HashSet<>(), new HashSet<>()));
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Biologia (concorrência)", 2, new HashSet<>()));
+        List<Turma> turmas = turmaRepository.saveAll(IntStream.range(0, 8)
+                .mapToObj(i -> new Turma(null, "Turma concorrente " + i))
+                .toList());
+
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(turmas.size())) {
+            for (Turma turma : turmas) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        aulaService.salvarAula(new Aula(null, disciplina, professor, turma, DayOfWeek.THURSDAY,
+                                LocalTime.of(10, 0), LocalTime.of(11, 0), null, null));
+                        return true;
+                    } catch (BusinessRuleException e) {
+                        return false;
+                    }
+                }));
+            }
+            largada.countDown();
+        }
+
+        long salvas = 0;
+        for (Future<Boolean> resultado : resultados) {
+            if (resultado.get()) {
+                salvas++;
+            }
+        }
+        assertEquals(1, salvas);
+        assertEquals(1, aulaRepository.findByProfessorId(professor.getId()).size());
+    }
+
+    @Test
+    void escritaDeOutroNoComOProfessorTravadoNoBancoEhVistaNaVerificacaoDeChoques() throws Exception {
+        Professor professor = professorRepository.save(
+                new Professor(null, "Prof. Dois Nós", "dois.nos@example.com", new HashSet<>(), new HashSet<>()));
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Artes (dois nós)", 2, new HashSet<>()));
+        Turma turmaA = turmaRepository.save(new Turma(null, "Turma dois nós A"));
+        Turma turmaB = turmaRepository.save(new Turma(null, "Turma dois nós B"));
+
+        // Outro nó não compartilha as listras desta JVM: só a trava da linha do professor no banco o separa desta escrita
+        CountDownLatch travado = new CountDownLatch(1);
+        try (ExecutorService outroNo = Executors.newSingleThreadExecutor()) {
+            Future<?> escrita = outroNo.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                professorRepository.travarPorIds(List.of(professor.getId()));
+                travado.countDown();
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                jdbcTemplate.update("""
+                        insert into aula (turma_id, professor_id, disciplina_id, dia_semana, horario_inicio, horario_fim,
+                                          periodo_inicio, periodo_fim)
+                        values (?, ?, ?, 'THURSDAY', '08:00:00', '09:00:00', 0, 1)
+                        """, turmaA.getId(), professor.getId(), disciplina.getId());
+            }));
+            travado.await();
+            assertThrows(BusinessRuleException.class, () -> aulaService.salvarAula(new Aula(null, disciplina, professor,
+                    turmaB, DayOfWeek.THURSDAY, LocalTime.of(8, 0), LocalTime.of(9, 0), null, null)));
+            escrita.get();
+        }
+        assertEquals(1, aulaRepository.findByProfessorId(professor.getId()).size());
+
+        // Sem professor ou turma, a aula é recusada antes de qualquer consulta
+        assertThrows(BusinessRuleException.class, () -> aulaService.salvarAula(new Aula(null, disciplina, null,
+                turmaA, DayOfWeek.THURSDAY, LocalTime.of(9, 0), LocalTime.of(10, 0), null, null)));
+        assertThrows(BusinessRuleException.class, () -> aulaService.salvarAula(new Aula(null, disciplina, professor,
+                null, DayOfWeek.THURSDAY, LocalTime.of(9, 0), LocalTime.of(10, 0), null, null)));
+    }
+
+    @Test
+    void moverAulaParaHorarioOcupadoEhRejeitado() {
+        Professor professor = professorRepository.save(
+                new Professor(null, "Prof. Choque", "choque@example.com", new HashSet<>(), new HashSet<>()));
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Inglês (choque)", 2, new HashSet<>()));
+        Turma turmaA = turmaRepository.save(new Turma(null, "Turma choque A"));
+        Turma turmaB = turmaRepository.save(new Turma(null, "Turma choque B"));
+
+        aulaService.salvarAula(new Aula(null, disciplina, professor, turmaA, DayOfWeek.FRIDAY,
+                LocalTime.of(8, 0), LocalTime.of(10, 0), null, null));
+        Aula outra = aulaService.salvarAula(new Aula(null, disciplina, professor, turmaB, DayOfWeek.FRIDAY,
+                LocalTime.of(10, 0), LocalTime.of(11, 0), null, null));
+
+        // Sobrepõe o segundo período da primeira aula
+        assertThrows(BusinessRuleException.class, () -> aulaService.salvarAula(new Aula(outra.getId(), disciplina,
+                professor, turmaB, DayOfWeek.FRIDAY, LocalTime.of(9, 0), LocalTime.of(10, 0), null, null)));
+
+        // Aulas que atravessam o intervalo do almoço (12:00-13:00) não são alinhadas à grade
+        assertThrows(BusinessRuleException.class, () -> aulaService.salvarAula(new Aula(outra.getId(), disciplina,
+                professor, turmaB, DayOfWeek.FRIDAY, LocalTime.of(11, 0), LocalTime.of(14, 0), null, null)));
+
+        // Mover a aula dentro da sua própria faixa não choca com ela mesma
+        Aula movida = aulaService.salvarAula(new Aula(outra.getId(), disciplina, professor, turmaB, DayOfWeek.FRIDAY,
+                LocalTime.of(10, 0), LocalTime.of(12, 0), null, null));
+        assertEquals(4, movida.getPeriodoFim());
+    }
+
+    @Test
+    void listaAulasPorChaveComFiltros() {
+        Professor professor = professorRepository.save(
+                new Professor(null, "Prof. Página", "pagina@example.com", new HashSet<>(), new HashSet<>()));
+        Professor outroProfessor = professorRepository.save(
+                new Professor(null, "Prof. Página 2", "pagina2@example.com", new HashSet<>(), new HashSet<>()));
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Artes (página)", 5, new HashSet<>()));
+        Turma turma = turmaRepository.save(new Turma(null, "Turma página"));
+        List<Long> ids = new ArrayList<>();
+        for (int hora = 8; hora < 12; hora++) {
+            ids.add(aulaService.salvarAula(new Aula(null, disciplina, professor, turma, DayOfWeek.MONDAY,
+                    LocalTime.of(hora, 0), LocalTime.of(hora + 1, 0), null, null)).getId());
+        }
+        ids.add(aulaService.salvarAula(new Aula(null, disciplina, outroProfessor, turma, DayOfWeek.TUESDAY,
+                LocalTime.of(8, 0), LocalTime.of(9, 0), null, null)).getId());
+
+        // Páginas de 2: o cursor é o último ID da página, e a última página não tem próximo cursor
+        List<Long> lidos = new ArrayList<>();
+        Long cursor = null;
+        int paginas = 0;
+        do {
+            PaginaKeyset<AulaResumo> pagina = aulaService.listarAulas(null, turma.getId(), null, cursor, 2);
+            pagina.itens().forEach(aula -> lidos.add(aula.id()));
+            cursor = pagina.proximoCursor();
+            if (cursor != null) {
+                assertEquals(pagina.itens().get(pagina.itens().size() - 1).id(), cursor);
+            }
+            paginas++;
+        } while (cursor != null);
+        assertEquals(ids, lidos);
+        assertEquals(3, paginas);
+
+        // Uma página que termina exatamente no último item não aponta para uma página vazia
+        assertNull(aulaService.listarAulas(null, turma.getId(), null, ids.get(2), 2).proximoCursor());
+        assertEquals(List.of(), aulaService.listarAulas(null, turma.getId(), null, ids.get(4), 2).itens());
+
+        assertEquals(List.of(ids.get(4)), aulaService.listarAulas(DayOfWeek.TUESDAY, turma.getId(), null, null, 10)
+                .itens().stream().map(AulaResumo::id).toList());
+        assertEquals(ids.subList(0, 4), aulaService.listarAulas(null, null, professor.getId(), null, 10)
+                .itens().stream().map(AulaResumo::id).toList());
+        assertEquals(List.of(), aulaService.listarAulas(DayOfWeek.TUESDAY, null, professor.getId(), null, 10).itens());
+    }
+}
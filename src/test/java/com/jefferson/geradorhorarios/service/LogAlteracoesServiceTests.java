@@ -0,0 +1,149 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.GeradorHorariosApplication;
+import com.jefferson.geradorhorarios.event.GradeAlteradaEvent;
+import com.jefferson.geradorhorarios.model.Turma;
+import com.jefferson.geradorhorarios.repository.RegistroAlteracaoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dois nós da aplicação no mesmo processo, compartilhando um banco H2, para verificar a invalidação entre nós.
+ */
+class LogAlteracoesServiceTests {
+
+    @Test
+    void alteracaoEmUmNoInvalidaARevisaoNoOutro() {
+        try (ConfigurableApplicationContext noA = iniciarNo("a", "create-drop");
+             ConfigurableApplicationContext noB = iniciarNo("b", "none")) {
+            Turma turma = new Turma();
+            turma.setNome("Turma do nó A");
+            Turma salva = noA.getBean(TurmaService.class).salvarTurma(turma);
+
+            RevisaoGradeService revisoesA = noA.getBean(RevisaoGradeService.class);
+            RevisaoGradeService revisoesB = noB.getBean(RevisaoGradeService.class);
+            long revisaoA = revisoesA.revisaoDaTurma(salva.getId());
+            long revisaoB = revisoesB.revisaoDaTurma(salva.getId());
+
+            noB.getBean(LogAlteracoesService.class).acompanhar();
+            assertTrue(revisoesB.revisaoDaTurma(salva.getId()) > revisaoB);
+
+            // O próprio nó ignora as alterações que já aplicou localmente
+            noA.getBean(LogAlteracoesService.class).acompanhar();
+            assertEquals(revisaoA, revisoesA.revisaoDaTurma(salva.getId()));
+
+            // A revisão gravada dos ETags é a mesma nos dois nós, sem depender do acompanhamento do log
+            String gravada = revisoesA.revisaoGravadaDaTurma(salva.getId());
+            assertEquals(gravada, revisoesB.revisaoGravadaDaTurma(salva.getId()));
+            noA.getBean(TurmaService.class).salvarTurma(salva);
+            assertNotEquals(gravada, revisoesB.revisaoGravadaDaTurma(salva.getId()));
+        }
+    }
+
+    @Test
+    void lacunaPendenteNaoImpedeALeituraDosRegistrosSeguintes() {
+        try (ConfigurableApplicationContext no = iniciarNo("b", "create-drop")) {
+            JdbcTemplate jdbcTemplate = no.getBean(JdbcTemplate.class);
+            RevisaoGradeService revisoes = no.getBean(RevisaoGradeService.class);
+            LogAlteracoesService logAlteracoes = no.getBean(LogAlteracoesService.class);
+            long base = no.getBean(RegistroAlteracaoRepository.class).buscarUltimoId();
+
+            // O 'ID' base + 1 fica faltando (transação ainda aberta), seguido de mais que um lote de registros
+            List<Long> ids = LongStream.rangeClosed(base + 2, base + 601).boxed().toList();
+            inserirRegistros(jdbcTemplate, ids);
+            long revisaoDoUltimo = revisoes.revisaoDaTurma(base + 601);
+            logAlteracoes.acompanhar();
+            assertTrue(revisoes.revisaoDaTurma(base + 601) > revisaoDoUltimo);
+
+            // A lacuna é relida quando a transação atrasada confirma
+            inserirRegistros(jdbcTemplate, List.of(base + 1));
+            long revisaoDaLacuna = revisoes.revisaoDaTurma(base + 1);
+            logAlteracoes.acompanhar();
+            assertTrue(revisoes.revisaoDaTurma(base + 1) > revisaoDaLacuna);
+        }
+    }
+
+    @Test
+    void lacunaSoEhAbandonadaQuandoSaiDaJanelaDeIds() {
+        try (ConfigurableApplicationContext no = iniciarNo("b", "create-drop", "--horarios.alteracoes.janela-lacunas=100")) {
+            JdbcTemplate jdbcTemplate = no.getBean(JdbcTemplate.class);
+            RevisaoGradeService revisoes = no.getBean(RevisaoGradeService.class);
+            LogAlteracoesService logAlteracoes = no.getBean(LogAlteracoesService.class);
+            long base = no.getBean(RegistroAlteracaoRepository.class).buscarUltimoId();
+
+            // Com 50 registros depois dela, a lacuna continua na janela e é relida mesmo que a transação demore
+            inserirRegistros(jdbcTemplate, LongStream.rangeClosed(base + 2, base + 51).boxed().toList());
+            logAlteracoes.acompanhar();
+            logAlteracoes.acompanhar();
+            inserirRegistros(jdbcTemplate, List.of(base + 1));
+            long revisaoDaLacuna = revisoes.revisaoDaTurma(base + 1);
+            logAlteracoes.acompanhar();
+            assertTrue(revisoes.revisaoDaTurma(base + 1) > revisaoDaLacuna);
+
+            // Com mais registros depois dela do que a janela, é dada como perdida (transação desfeita)
+            inserirRegistros(jdbcTemplate, LongStream.rangeClosed(base + 53, base + 300).boxed().toList());
+            logAlteracoes.acompanhar();
+            inserirRegistros(jdbcTemplate, List.of(base + 52));
+            long revisaoDaPerdida = revisoes.revisaoDaTurma(base + 52);
+            logAlteracoes.acompanhar();
+            assertEquals(revisaoDaPerdida, revisoes.revisaoDaTurma(base + 52));
+        }
+    }
+
+    @Test
+    void transacaoInternaGravaApenasAsSuasAlteracoes() {
+        try (ConfigurableApplicationContext no = iniciarNo("r", "create-drop")) {
+            PlatformTransactionManager transacoes = no.getBean(PlatformTransactionManager.class);
+            TransactionTemplate externa = new TransactionTemplate(transacoes);
+            TransactionTemplate interna = new TransactionTemplate(transacoes);
+            interna.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+            externa.executeWithoutResult(status -> {
+                no.publishEvent(GradeAlteradaEvent.turma(-1L));
+                interna.executeWithoutResult(statusInterno -> no.publishEvent(GradeAlteradaEvent.turma(-2L)));
+                no.publishEvent(GradeAlteradaEvent.turma(-3L));
+                status.setRollbackOnly();
+            });
+
+            // A interna confirmou só a sua alteração; as da externa, desfeita, não foram gravadas
+            assertEquals(List.of(-2L), no.getBean(JdbcTemplate.class).queryForList(
+                    "select entidade_id from registro_alteracao where origem = 'r' order by id", Long.class));
+        }
+    }
+
+    private static void inserirRegistros(JdbcTemplate jdbcTemplate, List<Long> ids) {
+        jdbcTemplate.batchUpdate("insert into registro_alteracao (id, escopo, entidade_id, origem, criado_em) values (?, 'TURMA', ?, 'a', ?)",
+                ids, ids.size(), (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setLong(2, id);
+                    ps.setObject(3, LocalDateTime.now());
+                });
+    }
+
+    private static ConfigurableApplicationContext iniciarNo(String noId, String ddlAuto, String... argumentos) {
+        List<String> todos = new ArrayList<>(List.of(
+                "--spring.profiles.active=nos", // Sem o perfil de teste, para não rodar o DataLoader
+                "--spring.datasource.url=jdbc:h2:mem:log_alteracoes;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                "--horarios.no.id=" + noId,
+                "--horarios.alteracoes.intervalo-ms=3600000"));
+        todos.addAll(List.of(argumentos));
+        return new SpringApplicationBuilder(GeradorHorariosApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(todos.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,104 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.consultas.ContadorConsultas;
+import com.jefferson.geradorhorarios.consultas.ContadorConsultasConfig;
+import com.jefferson.geradorhorarios.dto.ProfessorResumo;
+import com.jefferson.geradorhorarios.dto.QualificacaoRequest;
+import com.jefferson.geradorhorarios.dto.SlotViavel;
+import com.jefferson.geradorhorarios.model.*;
+import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
+import com.jefferson.geradorhorarios.repository.DisciplinaRepository;
+import com.jefferson.geradorhorarios.repository.ProfessorRepository;
+import com.jefferson.geradorhorarios.repository.TurmaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(ContadorConsultasConfig.class)
+class OcupacaoGradeServiceTests {
+
+    @Autowired
+    private OcupacaoGradeService ocupacaoGradeService;
+
+    @Autowired
+    private AulaService aulaService;
+
+    @Autowired
+    private ProfessorService professorService;
+
+    @Autowired
+    private DisponibilidadeProfessorService disponibilidadeProfessorService;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Test
+    void buscaSlotsLivresParaATurmaEParaOsProfessoresHabilitados() {
+        Turma turma = turmaRepository.save(new Turma(null, "Turma (slots)"));
+        Turma outraTurma = turmaRepository.save(new Turma(null, "Outra turma (slots)"));
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Química (slots)", 2, new HashSet<>()));
+        Disciplina outraDisciplina = disciplinaRepository.save(new Disciplina(null, "Inglês (slots)", 2, new HashSet<>()));
+        Professor ocupado = salvarProfessor("Prof. Ocupado", "ocupado@example.com");
+        Professor deFolga = salvarProfessor("Prof. De Folga", "folga@example.com");
+        Professor daOutraDisciplina = salvarProfessor("Prof. Inglês", "ingles@example.com");
+        professorService.qualificarEmLote(List.of(
+                new QualificacaoRequest(ocupado.getId(), disciplina.getId()),
+                new QualificacaoRequest(deFolga.getId(), disciplina.getId())));
+
+        // Segunda: o primeiro professor dá aula em outra turma às 8h, a turma tem outra aula às 9h
+        // e o segundo professor está de folga às 10h
+        aulaService.salvarAula(new Aula(null, disciplina, ocupado, outraTurma,
+                DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0), null, null));
+        aulaService.salvarAula(new Aula(null, outraDisciplina, daOutraDisciplina, turma,
+                DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0), null, null));
+        disponibilidadeProfessorService.salvarDisponibilidade(new DisponibilidadeProfessor(null, deFolga,
+                DayOfWeek.MONDAY, LocalTime.of(10, 0), LocalTime.of(11, 0), TipoDisponibilidade.FOLGA, null, null, null));
+
+        List<SlotViavel> slots = ocupacaoGradeService.buscarSlotsViaveis(turma.getId(), disciplina.getId());
+        Map<Integer, List<Long>> segunda = professoresPorPeriodo(slots, DayOfWeek.MONDAY);
+        assertEquals(List.of(deFolga.getId()), segunda.get(0));
+        assertFalse(segunda.containsKey(1));
+        assertEquals(List.of(ocupado.getId()), segunda.get(2));
+        assertEquals(List.of(ocupado.getId(), deFolga.getId()), segunda.get(3));
+        assertEquals(5 * 9 - 1, slots.size());
+
+        // Com as máscaras em cache, a busca não consulta o banco
+        ContadorConsultas.medir(() -> ocupacaoGradeService.buscarSlotsViaveis(turma.getId(), disciplina.getId()))
+                .verificarOrcamento("slots em cache", 0, 0);
+
+        // Uma nova habilitação recarrega só os habilitados na disciplina e a ocupação do professor novo
+        professorService.qualificarEmLote(List.of(new QualificacaoRequest(daOutraDisciplina.getId(), disciplina.getId())));
+        List<SlotViavel> comNovoProfessor = new ArrayList<>();
+        ContadorConsultas.medir(() -> comNovoProfessor.addAll(
+                        ocupacaoGradeService.buscarSlotsViaveis(turma.getId(), disciplina.getId())))
+                .verificarOrcamento("slots após nova habilitação", 3, 0);
+        assertEquals(List.of(deFolga.getId(), daOutraDisciplina.getId()),
+                professoresPorPeriodo(comNovoProfessor, DayOfWeek.MONDAY).get(0));
+    }
+
+    private Professor salvarProfessor(String nome, String email) {
+        return professorRepository.save(new Professor(null, nome, email, new HashSet<>(), new HashSet<>()));
+    }
+
+    private static Map<Integer, List<Long>> professoresPorPeriodo(List<SlotViavel> slots, DayOfWeek dia) {
+        return slots.stream()
+                .filter(slot -> slot.diaSemana() == dia)
+                .collect(Collectors.toMap(SlotViavel::periodo,
+                        slot -> slot.professores().stream().map(ProfessorResumo::id).toList()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.dto.QualificacaoRequest;
+import com.jefferson.geradorhorarios.dto.ResultadoQualificacao;
+import com.jefferson.geradorhorarios.exception.ResourceNotFoundException;
+import com.jefferson.geradorhorarios.model.Disciplina;
+import com.jefferson.geradorhorarios.model.Professor;
+import com.jefferson.geradorhorarios.repository.ProfessorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProfessorServiceTests {
+
+    @Autowired
+    private ProfessorService professorService;
+
+    @Autowired
+    private DisciplinaService disciplinaService;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Test
+    void qualificaEmLoteIgnorandoParesJaExistentes() {
+        Professor professor = professorService.salvarProfessor(
+                new Professor(null, "Prof. Lote", "lote@example.com", new HashSet<>(), new HashSet<>()));
+        Disciplina artes = disciplinaService.salvarDisciplina(new Disciplina(null, "Artes (lote)", 1, new HashSet<>()));
+        Disciplina musica = disciplinaService.salvarDisciplina(new Disciplina(null, "Música (lote)", 1, new HashSet<>()));
+
+        ResultadoQualificacao primeiro = professorService.qualificarEmLote(List.of(
+                new QualificacaoRequest(professor.getId(), artes.getId()),
+                new QualificacaoRequest(professor.getId(), artes.getId())));
+        assertEquals(new ResultadoQualificacao(1, 1, 0), primeiro);
+
+        ResultadoQualificacao segundo = professorService.qualificarEmLote(List.of(
+                new QualificacaoRequest(professor.getId(), artes.getId()),
+                new QualificacaoRequest(professor.getId(), musica.getId())));
+        assertEquals(new ResultadoQualificacao(2, 1, 0), segundo);
+
+        assertEquals(2, professorRepository.buscarQualificacoes().stream()
+                .filter(q -> q.professorId().equals(professor.getId()))
+                .count());
+
+        assertThrows(ResourceNotFoundException.class, () -> professorService.qualificarEmLote(List.of(
+                new QualificacaoRequest(professor.getId(), Long.MAX_VALUE))));
+    }
+
+    @Test
+    void lotesConcorrentesComOsMesmosParesNaoFalham() throws Exception {
+        List<Professor> professores = professorRepository.saveAll(IntStream.range(0, 10)
+                .mapToObj(i -> new Professor(null, "Prof. Concorrente " + i, "concorrente" + i + "@example.com",
+                        new HashSet<>(), new HashSet<>()))
+                .toList());
+        List<Disciplina> disciplinas = IntStream.range(0, 20)
+                .mapToObj(i -> disciplinaService.salvarDisciplina(
+                        new Disciplina(null, "Disciplina concorrente " + i, 1, new HashSet<>())))
+                .toList();
+        List<QualificacaoRequest> pares = new ArrayList<>();
+        for (Professor professor : professores) {
+            for (Disciplina disciplina : disciplinas) {
+                pares.add(new QualificacaoRequest(professor.getId(), disciplina.getId()));
+            }
+        }
+
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<ResultadoQualificacao>> resultados = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < 4; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return professorService.qualificarEmLote(pares);
+                }));
+            }
+            largada.countDown();
+        }
+
+        int inseridas = 0;
+        int indeterminadas = 0;
+        for (Future<ResultadoQualificacao> resultado : resultados) {
+            inseridas += resultado.get().inseridas();
+            indeterminadas += resultado.get().indeterminadas();
+        }
+        assertTrue(inseridas <= pares.size());
+        assertTrue(inseridas + indeterminadas >= pares.size());
+        Set<Long> professorIds = professores.stream().map(Professor::getId).collect(Collectors.toSet());
+        assertEquals(pares.size(), professorRepository.buscarQualificacoes().stream()
+                .filter(q -> professorIds.contains(q.professorId()))
+                .count());
+    }
+}
@@ -0,0 +1,85 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.dto.QualificacaoRequest;
+import com.jefferson.geradorhorarios.gerador.FaixasDePeriodos;
+import com.jefferson.geradorhorarios.gerador.ProblemaHorario;
+import com.jefferson.geradorhorarios.model.*;
+import com.jefferson.geradorhorarios.model.enums.TipoDisponibilidade;
+import com.jefferson.geradorhorarios.repository.DisciplinaRepository;
+import com.jefferson.geradorhorarios.repository.ProfessorRepository;
+import com.jefferson.geradorhorarios.repository.TurmaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SnapshotProblemaServiceTests {
+
+    @Autowired
+    private SnapshotProblemaService snapshotProblemaService;
+
+    @Autowired
+    private AulaService aulaService;
+
+    @Autowired
+    private ProfessorService professorService;
+
+    @Autowired
+    private DisponibilidadeProfessorService disponibilidadeProfessorService;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Test
+    void snapshotTrazOBancoPelasFaixasDePeriodos() {
+        Turma turma = turmaRepository.save(new Turma(null, "Turma (snapshot)"));
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Geografia (snapshot)", 3, new HashSet<>()));
+        Professor professor = professorRepository.save(
+                new Professor(null, "Prof. Snapshot", "snapshot@example.com", new HashSet<>(), new HashSet<>()));
+        professorService.qualificarEmLote(List.of(new QualificacaoRequest(professor.getId(), disciplina.getId())));
+        disponibilidadeProfessorService.salvarDisponibilidade(new DisponibilidadeProfessor(null, professor,
+                DayOfWeek.WEDNESDAY, LocalTime.of(14, 0), LocalTime.of(15, 0), TipoDisponibilidade.FOLGA, null, null, null));
+        disponibilidadeProfessorService.salvarDisponibilidade(new DisponibilidadeProfessor(null, professor,
+                DayOfWeek.THURSDAY, LocalTime.of(8, 0), LocalTime.of(9, 0), TipoDisponibilidade.PREFERENCIA, null, null, null));
+        aulaService.salvarAula(new Aula(null, disciplina, professor, turma,
+                DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(9, 0), null, null));
+        aulaService.salvarAula(new Aula(null, disciplina, professor, turma,
+                DayOfWeek.TUESDAY, LocalTime.of(8, 0), LocalTime.of(10, 0), null, null));
+
+        ProblemaHorario problema = snapshotProblemaService.carregar();
+        int t = indice(problema.quantidadeTurmas(), problema::turmaId, turma.getId());
+        int k = indice(problema.quantidadeDisciplinas(), problema::disciplinaId, disciplina.getId());
+        int p = indice(problema.quantidadeProfessores(), problema::professorId, professor.getId());
+        assertEquals("Turma (snapshot)", problema.turmaNome(t));
+        assertEquals(3, problema.cargaSemanal(k));
+        assertArrayEquals(new int[]{p}, problema.professoresDaDisciplina(k));
+
+        List<DayOfWeek> dias = Arrays.asList(problema.dias());
+        int segunda = dias.indexOf(DayOfWeek.MONDAY);
+        int terca = dias.indexOf(DayOfWeek.TUESDAY);
+        assertEquals(FaixasDePeriodos.mascara(5, 6), problema.bloqueiosDoProfessor(p)[dias.indexOf(DayOfWeek.WEDNESDAY)]);
+        assertEquals(0L, problema.bloqueiosDoProfessor(p)[dias.indexOf(DayOfWeek.THURSDAY)]);
+        assertEquals(List.of(new ProblemaHorario.AulaFixa(t, k, p, segunda, 0, 1), new ProblemaHorario.AulaFixa(t, k, p, terca, 0, 2)),
+                problema.aulasFixas().stream().filter(aula -> aula.turma() == t).toList());
+    }
+
+    private static int indice(int quantidade, IntToLongFunction id, long procurado) {
+        return IntStream.range(0, quantidade).filter(i -> id.applyAsLong(i) == procurado).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,129 @@
+package com.jefferson.geradorhorarios.service;
+
+import com.jefferson.geradorhorarios.consultas.ContadorConsultas;
+import com.jefferson.geradorhorarios.consultas.ContadorConsultasConfig;
+import com.jefferson.geradorhorarios.dto.Alocacao;
+import com.jefferson.geradorhorarios.dto.DiffVersoes;
+import com.jefferson.geradorhorarios.dto.QualificacaoRequest;
+import com.jefferson.geradorhorarios.dto.VersaoGerada;
+import com.jefferson.geradorhorarios.gerador.SolucaoHorario;
+import com.jefferson.geradorhorarios.model.Disciplina;
+import com.jefferson.geradorhorarios.model.Professor;
+import com.jefferson.geradorhorarios.model.Turma;
+import com.jefferson.geradorhorarios.model.VersaoHorario;
+import com.jefferson.geradorhorarios.repository.AulaRepository;
+import com.jefferson.geradorhorarios.repository.DisciplinaRepository;
+import com.jefferson.geradorhorarios.repository.ProfessorRepository;
+import com.jefferson.geradorhorarios.repository.TurmaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Import(ContadorConsultasConfig.class)
+class VersaoHorarioServiceTests {
+
+    @Autowired
+    private VersaoHorarioService versaoHorarioService;
+
+    @Autowired
+    private GeracaoHorarioService geracaoHorarioService;
+
+    @Autowired
+    private ProfessorService professorService;
+
+    @Autowired
+    private AulaRepository aulaRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Test
+    void reconstroiEComparaVersoesAtravesDeCheckpoints() {
+        Set<Alocacao> estado = new HashSet<>(Set.of(alocacao(1, 1, DayOfWeek.MONDAY, 8), alocacao(2, 2, DayOfWeek.MONDAY, 8)));
+        VersaoHorario raiz = versaoHorarioService.criarVersao(null, estado, "raiz");
+        assertTrue(raiz.getCheckpoint());
+
+        // Cadeia longa o bastante para passar por um checkpoint intermediário
+        VersaoHorario ultima = raiz;
+        for (int i = 0; i < VersaoHorarioService.INTERVALO_CHECKPOINT + 3; i++) {
+            estado.add(alocacao(1, 1, DayOfWeek.TUESDAY, 8 + i));
+            if (i % 3 == 0) {
+                estado.remove(alocacao(2, 2, DayOfWeek.MONDAY, 8));
+            } else {
+                estado.add(alocacao(2, 2, DayOfWeek.MONDAY, 8));
+            }
+            ultima = versaoHorarioService.criarVersao(ultima.getId(), estado, "passo " + i);
+            assertEquals(estado, versaoHorarioService.reconstruir(ultima.getId()));
+        }
+
+        // Ramo alternativo a partir da raiz
+        Set<Alocacao> alternativo = Set.of(alocacao(1, 1, DayOfWeek.FRIDAY, 10));
+        VersaoHorario ramo = versaoHorarioService.criarVersao(raiz.getId(), alternativo, "ramo");
+
+        DiffVersoes diff = versaoHorarioService.diff(ultima.getId(), ramo.getId());
+        Set<Alocacao> esperadasAdicionadas = new HashSet<>(alternativo);
+        esperadasAdicionadas.removeAll(estado);
+        Set<Alocacao> esperadasRemovidas = new HashSet<>(estado);
+        esperadasRemovidas.removeAll(alternativo);
+        assertEquals(esperadasAdicionadas, diff.adicionadas());
+        assertEquals(esperadasRemovidas, diff.removidas());
+
+        DiffVersoes inverso = versaoHorarioService.diff(ramo.getId(), ultima.getId());
+        assertEquals(diff.adicionadas(), inverso.removidas());
+        assertEquals(diff.removidas(), inverso.adicionadas());
+
+        // As cadeias de ancestrais são lidas de uma vez, qualquer que seja a profundidade
+        Long ultimaId = ultima.getId();
+        ContadorConsultas.medir(() -> versaoHorarioService.reconstruir(ultimaId))
+                .verificarOrcamento("reconstruir versão", 3, 0); // Cadeia até o checkpoint, checkpoint e deltas
+        ContadorConsultas.medir(() -> versaoHorarioService.diff(ultimaId, ramo.getId()))
+                .verificarOrcamento("diff de versões", 3, 0); // Duas cadeias de ancestrais e os deltas
+    }
+
+    @Test
+    void candidataGeradaEhGravadaComoVersaoSemAlterarAGrade() {
+        Turma turma = turmaRepository.save(new Turma(null, "Turma (candidata)"));
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Artes (candidata)", 2, new HashSet<>()));
+        Professor professor = professorRepository.save(
+                new Professor(null, "Prof. Candidata", "candidata@example.com", new HashSet<>(), new HashSet<>()));
+        professorService.qualificarEmLote(List.of(new QualificacaoRequest(professor.getId(), disciplina.getId())));
+        long aulasAntes = aulaRepository.count();
+
+        VersaoGerada gerada = geracaoHorarioService.gerarVersao(null, "candidata");
+
+        assertEquals(aulasAntes, aulaRepository.count());
+        Set<Alocacao> alocacoes = versaoHorarioService.reconstruir(gerada.versao().getId());
+        assertEquals(gerada.versao().getQuantidadeAlocacoes(), alocacoes.size());
+        // Toda turma do banco recebe a disciplina; o que não coube fica como pendência
+        long alocadas = alocacoes.stream()
+                .filter(alocacao -> alocacao.turmaId().equals(turma.getId()) && alocacao.disciplinaId().equals(disciplina.getId()))
+                .peek(alocacao -> assertEquals(professor.getId(), alocacao.professorId()))
+                .count();
+        int pendentes = gerada.pendencias().stream()
+                .filter(pendencia -> pendencia.turmaId().equals(turma.getId()) && pendencia.disciplinaId().equals(disciplina.getId()))
+                .mapToInt(SolucaoHorario.Pendencia::quantidade)
+                .sum();
+        assertTrue(alocadas > 0);
+        assertEquals(2, alocadas + pendentes);
+    }
+
+    private static Alocacao alocacao(long turmaId, long professorId, DayOfWeek dia, int hora) {
+        return new Alocacao(turmaId, 1L, professorId, dia, LocalTime.of(hora, 0), LocalTime.of(hora + 1, 0));
+    }
+}
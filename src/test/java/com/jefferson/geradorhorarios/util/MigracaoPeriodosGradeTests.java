@@ -0,0 +1,114 @@
+package com.jefferson.geradorhorarios.util;
+
+import com.jefferson.geradorhorarios.gerador.FaixasDePeriodos;
+import com.jefferson.geradorhorarios.model.Aula;
+import com.jefferson.geradorhorarios.model.Disciplina;
+import com.jefferson.geradorhorarios.model.Professor;
+import com.jefferson.geradorhorarios.model.RegistroQuarentena;
+import com.jefferson.geradorhorarios.model.Turma;
+import com.jefferson.geradorhorarios.repository.DisciplinaRepository;
+import com.jefferson.geradorhorarios.repository.ProfessorRepository;
+import com.jefferson.geradorhorarios.repository.RegistroQuarentenaRepository;
+import com.jefferson.geradorhorarios.repository.TurmaRepository;
+import com.jefferson.geradorhorarios.service.AulaService;
+import com.jefferson.geradorhorarios.service.OcupacaoGradeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MigracaoPeriodosGradeTests {
+
+    @Autowired
+    private MigracaoPeriodosGrade migracao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AulaService aulaService;
+
+    @Autowired
+    private OcupacaoGradeService ocupacaoGradeService;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private RegistroQuarentenaRepository registroQuarentenaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Test
+    void aulasQueNaoPodemSerMigradasVaoParaAQuarentena() {
+        Turma turma = turmaRepository.save(new Turma(null, "Turma migração"));
+        Turma outraTurma = turmaRepository.save(new Turma(null, "Turma migração 2"));
+        Professor professor = professorRepository.save(
+                new Professor(null, "Prof. Migração", "migracao@example.com", new HashSet<>(), new HashSet<>()));
+        Disciplina disciplina = disciplinaRepository.save(new Disciplina(null, "Filosofia (migração)", 2, new HashSet<>()));
+        aulaService.salvarAula(new Aula(null, disciplina, professor, outraTurma,
+                DayOfWeek.WEDNESDAY, LocalTime.of(8, 0), LocalTime.of(9, 0), null, null));
+        // Simula o banco de antes da grade horária, quando as colunas de período eram anuláveis
+        jdbcTemplate.execute("alter table aula alter column periodo_inicio set null");
+        jdbcTemplate.execute("alter table aula alter column periodo_fim set null");
+        long desalinhada = inserirAulaSemFaixa(turma, professor, disciplina, "MONDAY", "08:30", "09:30");
+        long noSabado = inserirAulaSemFaixa(turma, professor, disciplina, "SATURDAY", "08:00", "09:00");
+        long atravessaOAlmoco = inserirAulaSemFaixa(turma, professor, disciplina, "TUESDAY", "11:30", "13:30");
+        long chocaDepoisDoEncaixe = inserirAulaSemFaixa(turma, professor, disciplina, "WEDNESDAY", "08:30", "09:30");
+        try {
+            assertDoesNotThrow(() -> migracao.run(null));
+
+            Map<String, Object> encaixada = aula(desalinhada);
+            assertEquals(0, encaixada.get("PERIODO_INICIO"));
+            assertEquals(2, encaixada.get("PERIODO_FIM"));
+            assertEquals(java.sql.Time.valueOf("08:00:00"), encaixada.get("HORARIO_INICIO"));
+            assertEquals(FaixasDePeriodos.mascara(0, 2),
+                    ocupacaoGradeService.ocupacaoDoProfessor(professor.getId())[DayOfWeek.MONDAY.ordinal()]);
+
+            // As que não podem ser migradas saem da grade, mas ficam guardadas com o motivo
+            for (long id : new long[]{noSabado, atravessaOAlmoco, chocaDepoisDoEncaixe}) {
+                assertEquals(0, jdbcTemplate.queryForObject("select count(*) from aula where id = ?", Integer.class, id));
+                RegistroQuarentena registro = registroQuarentenaRepository
+                        .findByOrigemAndRegistroId(RegistroQuarentena.Origem.AULA, id).orElseThrow();
+                assertEquals(turma.getId(), registro.getTurmaId());
+                assertFalse(registro.getMotivo().isBlank());
+            }
+            assertEquals(java.sql.Time.valueOf("11:30:00").toLocalTime(), registroQuarentenaRepository
+                    .findByOrigemAndRegistroId(RegistroQuarentena.Origem.AULA, atravessaOAlmoco).orElseThrow().getHorarioInicio());
+
+            // Depois da migração, o banco não aceita mais aulas sem faixa
+            assertThrows(DataIntegrityViolationException.class,
+                    () -> inserirAulaSemFaixa(turma, professor, disciplina, "THURSDAY", "08:00", "09:00"));
+        } finally {
+            jdbcTemplate.update("delete from aula where turma_id in (?, ?)", turma.getId(), outraTurma.getId());
+            jdbcTemplate.update("delete from registro_quarentena where professor_id = ?", professor.getId());
+        }
+    }
+
+    private long inserirAulaSemFaixa(Turma turma, Professor professor, Disciplina disciplina,
+                                     String dia, String inicio, String fim) {
+        jdbcTemplate.update("""
+                insert into aula (turma_id, professor_id, disciplina_id, dia_semana, horario_inicio, horario_fim)
+                values (?, ?, ?, ?, ?, ?)
+                """, turma.getId(), professor.getId(), disciplina.getId(), dia,
+                java.sql.Time.valueOf(inicio + ":00"), java.sql.Time.valueOf(fim + ":00"));
+        return jdbcTemplate.queryForObject("select max(id) from aula", Long.class);
+    }
+
+    private Map<String, Object> aula(long id) {
+        return jdbcTemplate.queryForMap("select * from aula where id = ?", id);
+    }
+}